@@ -0,0 +1,62 @@
+package com.scalaris.bench;
+
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.security.PasswordHashing;
+import com.scalaris.auth.service.AuthService;
+import com.scalaris.auth.service.InvalidCredentialsException;
+import com.scalaris.auth.web.dto.LoginRequest;
+import com.scalaris.config.HashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/** Login: lookup (stub) + BCrypt.matches en el pool de hashing. Domina el costo de BCrypt. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthBenchmark {
+
+    @Param({"12"})
+    int cost;
+
+    private AuthService auth;
+    private LoginRequest ok;
+    private LoginRequest wrongPassword;
+
+    @Setup
+    public void setup() {
+        var encoder = new BCryptPasswordEncoder(cost);
+        User user = Stubs.user("bench@demo.com", encoder.encode("Abcdef12"));
+        UserRepository users = Stubs.repository(UserRepository.class, Map.of(
+                "findByCanonicalEmail", args -> Optional.of(user)));
+
+        var registry = new SimpleMeterRegistry();
+        var hashing = new PasswordHashing(encoder, new HashingProperties(), registry);
+        auth = new AuthService(users, hashing, registry);
+        ok = new LoginRequest("bench@demo.com", "Abcdef12");
+        wrongPassword = new LoginRequest("bench@demo.com", "otra-clave");
+    }
+
+    @Benchmark
+    public User authenticate() {
+        return auth.authenticate(ok);
+    }
+
+    @Benchmark
+    public boolean authenticateWrongPassword() {
+        try {
+            auth.authenticate(wrongPassword);
+            return true;
+        } catch (InvalidCredentialsException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.scalaris.bench;
+
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.security.AuthCache;
+import com.scalaris.auth.security.JwtAuthFilter;
+import com.scalaris.auth.security.JwtService;
+import com.scalaris.auth.security.TokenCodec;
+import com.scalaris.config.AuthCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Request autenticado a través de JwtAuthFilter, con y sin AuthCache. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"true", "false"})
+    boolean cacheEnabled;
+
+    private JwtAuthFilter filter;
+    private String authorization;
+    private final FilterChain chain = (req, res) -> {};
+
+    @Setup
+    public void setup() {
+        var props = Stubs.jwtProperties();
+        var registry = new SimpleMeterRegistry();
+        var jwt = new JwtService(new TokenCodec(props, registry), props);
+        User user = Stubs.user("bench@demo.com", "{noop}x");
+
+        UserRepository users = Stubs.repository(UserRepository.class, Map.of(
+                "findById", args -> Optional.of(user)));
+
+        var cacheProps = new AuthCacheProperties();
+        cacheProps.setEnabled(cacheEnabled);
+
+        filter = new JwtAuthFilter(jwt, users, new AuthCache(cacheProps, props, registry));
+        authorization = "Bearer " + jwt.createAccessToken(user, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        // request nuevo por invocación: OncePerRequestFilter marca el request como ya filtrado
+        var request = new MockHttpServletRequest("GET", "/api/v1/third-parties");
+        request.addHeader("Authorization", authorization);
+        var response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
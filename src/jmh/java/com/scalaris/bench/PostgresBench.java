@@ -0,0 +1,87 @@
+package com.scalaris.bench;
+
+import com.scalaris.Main;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contexto Spring real (sin web) contra un Postgres en contenedor, para los benchmarks que miden
+ * JPA/DB. Usa el perfil "test" (sin jobs en background) y Flyway aplica las migraciones reales.
+ * Necesita Docker; un contenedor y un contexto por @Setup(Level.Trial).
+ */
+final class PostgresBench implements AutoCloseable {
+
+    private final PostgreSQLContainer<?> postgres;
+    private final ConfigurableApplicationContext context;
+
+    private PostgresBench(PostgreSQLContainer<?> postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    /** {@code properties} en formato "clave=valor"; pisan a los del perfil de test. */
+    static PostgresBench start(String... properties) {
+        var postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+        postgres.start();
+        try {
+            var props = new ArrayList<>(List.of(
+                    "spring.datasource.url=" + postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "spring.main.banner-mode=off",
+                    "logging.level.root=WARN",
+                    // el perfil de test prende Statistics para contar sentencias; acá solo suma costo
+                    "spring.jpa.properties.hibernate.generate_statistics=false",
+                    "security.email-filter.enabled=false"));
+            props.addAll(List.of(properties));
+
+            var context = new SpringApplicationBuilder(Main.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties(props.toArray(String[]::new))
+                    .run();
+            return new PostgresBench(postgres, context);
+        } catch (RuntimeException e) {
+            postgres.stop();
+            throw e;
+        }
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    JdbcTemplate jdbc() {
+        return context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Inserta {@code rows} clientes activos por SQL (los triggers de V1/V13 corren igual)
+     * y actualiza estadísticas para que el planner no parta de una tabla "vacía".
+     */
+    void seedThirdParties(int rows) {
+        jdbc().update("""
+                insert into third_party (kind, person_type, display_name, email, phone, document_type, document_number)
+                select 'CUSTOMER', 'PERSON', 'Cliente ' || lpad(g::text, 7, '0'), 'cliente' || g || '@bench.com',
+                       '351 555-' || lpad((g % 10000)::text, 4, '0'), 'DNI', (30000000 + g)::text
+                from generate_series(1, ?) g
+                """, rows);
+        jdbc().execute("analyze third_party");
+    }
+
+    @Override
+    public void close() {
+        try {
+            context.close();
+        } finally {
+            postgres.stop();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.scalaris.bench;
+
+import com.scalaris.parties.domain.*;
+import com.scalaris.parties.service.ThirdPartyService;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest.AddressDto;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest.TaxIdDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detalle de tercero ({@link ThirdPartyService#get}: ficha + taxIds + direcciones) con la cache L2 de
+ * Hibernate prendida y apagada ({@code persistence.l2-cache.enabled}). Recorre {@link #PARTIES} fichas
+ * en ronda; con la cache prendida, después del warmup todas salen de las regiones sin ir a la DB.
+ * Necesita Docker (ver {@link PostgresBench}); un contenedor y un contexto por valor de {@code l2}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SecondLevelCacheBenchmark {
+
+    static final int PARTIES = 1_000;
+
+    @Param({"true", "false"})
+    boolean l2;
+
+    private PostgresBench db;
+    private ThirdPartyService service;
+    private UUID[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        db = PostgresBench.start("persistence.l2-cache.enabled=" + l2);
+        service = db.bean(ThirdPartyService.class);
+
+        ids = new UUID[PARTIES];
+        for (int i = 0; i < PARTIES; i++) ids[i] = service.create(request(i)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public ThirdParty get() {
+        UUID id = ids[next];
+        next = (next + 1) % PARTIES;
+        return service.get(id);
+    }
+
+    private static ThirdPartyCreateRequest request(int i) {
+        var taxIds = List.of(
+                new TaxIdDto(TaxIdType.OTHER, "20-" + (10_000_000 + i) + "-3", true),
+                new TaxIdDto(TaxIdType.OTHER, "27-" + (10_000_000 + i) + "-4", false));
+        var addresses = List.of(
+                new AddressDto(AddressType.DELIVERY, "Calle " + i + " 123", null, "Córdoba", "Córdoba", "5000", "AR", true),
+                new AddressDto(AddressType.DELIVERY, "Ruta " + i + " km 5", null, "Córdoba", "Córdoba", "5000", "AR", false));
+
+        return new ThirdPartyCreateRequest(
+                ThirdPartyKind.CUSTOMER, PersonType.PERSON, "Cliente " + i, null,
+                "cliente" + i + "@bench.com", null, "DNI", String.valueOf(30_000_000 + i), null,
+                null, null, null, null, null, null, null, null, null, null, null,
+                taxIds, addresses);
+    }
+}
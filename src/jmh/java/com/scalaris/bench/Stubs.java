@@ -0,0 +1,58 @@
+package com.scalaris.bench;
+
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.config.JwtProperties;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Dobles en memoria para los benchmarks: repos Spring Data como proxies que solo implementan
+ * los métodos que el camino medido usa (el resto tira UnsupportedOperationException).
+ */
+final class Stubs {
+
+    private Stubs() {}
+
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, m, args) -> {
+            var impl = methods.get(m.getName());
+            if (impl != null) return impl.apply(args);
+            return switch (m.getName()) {
+                case "toString" -> "Stub<" + type.getSimpleName() + ">";
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + m.getName());
+            };
+        });
+        return type.cast(proxy);
+    }
+
+    static JwtProperties jwtProperties() {
+        var props = new JwtProperties();
+        props.setSecret("benchmark-secret-benchmark-secret-benchmark-secret");
+        props.setIssuer("bench");
+        return props;
+    }
+
+    /** Usuario activo con id asignado (en la app lo pone Hibernate al persistir). */
+    static User user(String email, String passwordHash) {
+        var user = new User("Bench User", email, passwordHash, UserRole.EMPLOYEE, null, null, true);
+        setField(user, "id", UUID.randomUUID());
+        return user;
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field f = target.getClass().getDeclaredField(name);
+            f.setAccessible(true);
+            f.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.scalaris.bench;
+
+import com.scalaris.config.ThirdPartyChangesProperties;
+import com.scalaris.config.ThirdPartySearchProperties;
+import com.scalaris.parties.domain.*;
+import com.scalaris.parties.repo.ThirdPartyRepository;
+import com.scalaris.parties.service.ThirdPartyService;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest.AddressDto;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest.TaxIdDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Alta de tercero en memoria (applyCore + syncTaxIds + syncAddresses + reglas); el save es un stub. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ThirdPartyCreateBenchmark {
+
+    /** Cantidad de taxIds y de direcciones por ficha. */
+    @Param({"1", "10"})
+    int children;
+
+    private ThirdPartyService service;
+    private ThirdPartyCreateRequest request;
+
+    @Setup
+    public void setup() {
+        ThirdPartyRepository repo = Stubs.repository(ThirdPartyRepository.class, Map.of(
+                "saveAndFlush", args -> args[0]));
+        service = new ThirdPartyService(repo, new ThirdPartySearchProperties(), new ThirdPartyChangesProperties());
+
+        var taxIds = new ArrayList<TaxIdDto>();
+        var addresses = new ArrayList<AddressDto>();
+        for (int i = 0; i < children; i++) {
+            taxIds.add(new TaxIdDto(TaxIdType.OTHER, " 20-" + (10_000_000 + i) + "-3 ", i == 0));
+            addresses.add(new AddressDto(AddressType.DELIVERY, " Calle " + i + " 123 ", null,
+                    "Córdoba", "Córdoba", "5000", "AR", i == 0));
+        }
+
+        request = new ThirdPartyCreateRequest(
+                ThirdPartyKind.CUSTOMER, PersonType.PERSON, " Juan Pérez ", null,
+                "juan@demo.com", "351 555-0000", "DNI", "30111222", null,
+                null, null, null, null, null, null, null, null, null, null, null,
+                taxIds, addresses);
+    }
+
+    @Benchmark
+    public ThirdParty create() {
+        return service.create(request);
+    }
+}
@@ -0,0 +1,75 @@
+package com.scalaris.bench;
+
+import com.scalaris.parties.domain.ThirdParty;
+import com.scalaris.parties.repo.ThirdPartyRepository;
+import com.scalaris.parties.web.dto.ThirdPartySummaryResponse;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listado de {@link #ROWS} activos: hidratando entidades (la consulta que usaba searchActive antes
+ * de proyectar) contra la proyección {@code ThirdPartySummaryView}. Ambos caminos terminan en la
+ * misma lista de DTOs, dentro de una transacción de solo lectura como el service.
+ * Para ver bytes asignados por operación: {@code -Djmh.args="ThirdPartyListing -prof gc"}.
+ * Necesita Docker (ver {@link PostgresBench}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ThirdPartyListingBenchmark {
+
+    static final int ROWS = 10_000;
+
+    private PostgresBench db;
+    private ThirdPartyRepository repo;
+    private EntityManager em;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // sin L2: la hidratación no debe cargar además las regiones del cache
+        db = PostgresBench.start("persistence.l2-cache.enabled=false");
+        db.seedThirdParties(ROWS);
+        repo = db.bean(ThirdPartyRepository.class);
+        em = db.bean(EntityManager.class);
+        readOnly = new TransactionTemplate(db.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public List<ThirdPartySummaryResponse> entities() {
+        return readOnly.execute(tx -> em.createQuery("""
+                        select t from ThirdParty t
+                        where t.active = true
+                        order by t.displayName asc, t.id asc
+                        """, ThirdParty.class)
+                .setMaxResults(ROWS)
+                .getResultStream()
+                .map(t -> new ThirdPartySummaryResponse(t.getId(), t.getKind(), t.getDisplayName(),
+                        t.getEmail(), t.getPhone(), t.getDocumentNumber(), t.isActive()))
+                .toList());
+    }
+
+    @Benchmark
+    public List<ThirdPartySummaryResponse> projection() {
+        return readOnly.execute(tx -> repo.searchActive(null, null, PageRequest.of(0, ROWS))
+                .stream()
+                .map(v -> new ThirdPartySummaryResponse(v.id(), v.kind(), v.displayName(),
+                        v.email(), v.phone(), v.documentNumber(), v.active()))
+                .toList());
+    }
+}
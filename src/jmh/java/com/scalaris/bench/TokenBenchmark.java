@@ -0,0 +1,77 @@
+package com.scalaris.bench;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.repo.RefreshSessionRow;
+import com.scalaris.auth.repo.RefreshTokenRepository;
+import com.scalaris.auth.security.TokenCodec;
+import com.scalaris.auth.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Emisión/rotación de tokens y firma/verificación HS256 (también con varios hilos sobre el mismo codec). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TokenBenchmark {
+
+    private TokenCodec codec;
+    private TokenService tokens;
+    private User user;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup
+    public void setup() {
+        var props = Stubs.jwtProperties();
+        codec = new TokenCodec(props, new SimpleMeterRegistry());
+        user = Stubs.user("bench@demo.com", "{noop}x");
+
+        RefreshTokenRepository refreshRepo = Stubs.repository(RefreshTokenRepository.class, Map.of(
+                "save", args -> args[0],
+                "findSession", args -> Optional.of(new RefreshSessionRow((UUID) args[0], (UUID) args[0],
+                        OffsetDateTime.now().plusDays(1), null, user.getId(), user.getEmail(), user.getRole(), true)),
+                "revokeIfActive", args -> 1));
+
+        tokens = new TokenService(props, codec, refreshRepo);
+        var issued = tokens.issueTokens(user);
+        accessToken = issued.accessToken();
+        refreshToken = issued.refreshToken();
+    }
+
+    @Benchmark
+    public TokenService.IssuedTokens issueTokens() {
+        return tokens.issueTokens(user);
+    }
+
+    @Benchmark
+    public TokenService.IssuedTokens refresh() {
+        // lo mismo que hace el endpoint: verificar, leer sesión, revocar e insertar sucesor
+        return tokens.refresh(refreshToken);
+    }
+
+    @Benchmark
+    public String signAccess() {
+        return tokens.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyAccess() {
+        return codec.verify(accessToken);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public DecodedJWT verifyAccessContended() {
+        return codec.verify(accessToken);
+    }
+}
@@ -16,4 +16,8 @@ public final class ErrorCodes {
     public static final String METHOD_NOT_ALLOWED = "METHOD_NOT_ALLOWED";
     public static final String MALFORMED_JSON   = "MALFORMED_JSON";
     public static final String INTERNAL_ERROR   = "INTERNAL_ERROR";
+    public static final String SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
+    public static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
+    public static final String PAYLOAD_TOO_LARGE = "PAYLOAD_TOO_LARGE";
+    public static final String PRECONDITION_FAILED = "PRECONDITION_FAILED";
 }
@@ -8,7 +8,8 @@ import java.util.UUID;
 @Table(name = "refresh_token",
         indexes = {
                 @Index(name = "ix_refresh_user", columnList = "user_id"),
-                @Index(name = "ix_refresh_expires", columnList = "expires_at")
+                @Index(name = "ix_refresh_expires", columnList = "expires_at"),
+                @Index(name = "ix_refresh_family", columnList = "family_id")
         })
 public class RefreshToken {
 
@@ -18,6 +19,9 @@ public class RefreshToken {
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId; // id del primer refresh del login; se hereda en cada rotación
+
     @Column(name = "expires_at", nullable = false)
     private OffsetDateTime expiresAt;
 
@@ -29,9 +33,15 @@ public class RefreshToken {
 
     protected RefreshToken() {}
 
+    /** Primer refresh de un login: arranca su propia familia. */
     public RefreshToken(UUID id, UUID userId, OffsetDateTime expiresAt) {
+        this(id, userId, id, expiresAt);
+    }
+
+    public RefreshToken(UUID id, UUID userId, UUID familyId, OffsetDateTime expiresAt) {
         this.id = id;
         this.userId = userId;
+        this.familyId = familyId;
         this.expiresAt = expiresAt;
     }
 
@@ -42,6 +52,7 @@ public class RefreshToken {
 
     public UUID getId() { return id; }
     public UUID getUserId() { return userId; }
+    public UUID getFamilyId() { return familyId; }
     public OffsetDateTime getExpiresAt() { return expiresAt; }
     public OffsetDateTime getRevokedAt() { return revokedAt; }
 
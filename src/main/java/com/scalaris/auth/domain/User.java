@@ -1,16 +1,21 @@
 package com.scalaris.auth.domain;
 
+import com.scalaris.auth.security.UserChangeListener;
+import com.scalaris.shared.text.Emails;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(
-        name = "app_user",
-        uniqueConstraints = @UniqueConstraint(name = "uk_app_user_email", columnNames = "email")
-)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+// unicidad del email: índice único sobre lower(email), ver V9__app_user_email_lower_index.sql
+@Table(name = "app_user")
+@EntityListeners(UserChangeListener.class)
 public class User {
 
     @Id
@@ -84,7 +89,7 @@ public class User {
     }
 
     private void normalizeEmail() {
-        if (this.email != null) this.email = this.email.trim().toLowerCase();
+        if (this.email != null) this.email = Emails.canonical(this.email);
     }
 
     // Getters (sin Lombok, sin magia)
@@ -101,6 +106,7 @@ public class User {
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
 
     public void setFullName(String fullName) { this.fullName = fullName; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
     public void setTaxPosition(TaxPosition taxPosition) { this.taxPosition = taxPosition; }
     public void setCompanyStructure(CompanyStructure companyStructure) { this.companyStructure = companyStructure; }
 }
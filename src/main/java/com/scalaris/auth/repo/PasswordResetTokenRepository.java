@@ -1,9 +1,18 @@
 package com.scalaris.auth.repo;
 
 import com.scalaris.auth.domain.PasswordResetToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface PasswordResetTokenRepository extends JpaRepository <PasswordResetToken, UUID> {
+
+    /** Lote de vencidos para la purga (usa ix_prt_expires). */
+    @Query("select p.id from PasswordResetToken p where p.expiresAt < :cutoff")
+    List<UUID> findExpiredIds(@Param("cutoff") OffsetDateTime cutoff, Pageable page);
 }
@@ -0,0 +1,18 @@
+package com.scalaris.auth.repo;
+
+import com.scalaris.auth.domain.UserRole;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Fila de refresh_token + lo que hace falta del usuario para rotar, en una sola consulta. */
+public record RefreshSessionRow(
+        UUID id,
+        UUID familyId,
+        OffsetDateTime expiresAt,
+        OffsetDateTime revokedAt,
+        UUID userId,
+        String email,
+        UserRole role,
+        boolean active
+) {}
@@ -1,11 +1,44 @@
 package com.scalaris.auth.repo;
 
 import com.scalaris.auth.domain.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
-    Optional<RefreshToken> findByIdAndRevokedAtIsNull(UUID id);
+
+    /** Refresh + usuario (activo, rol, email) en un solo round trip para /auth/refresh. */
+    @Query("""
+            select new com.scalaris.auth.repo.RefreshSessionRow(
+                r.id, r.familyId, r.expiresAt, r.revokedAt, u.id, u.email, u.role, u.active)
+            from RefreshToken r join User u on u.id = r.userId
+            where r.id = :id
+            """)
+    Optional<RefreshSessionRow> findSession(@Param("id") UUID id);
+
+    /**
+     * Compare-and-revoke: un solo UPDATE condicional. Devuelve 1 solo para quien lo revoca;
+     * dos refresh concurrentes del mismo token no pueden pasar los dos.
+     */
+    @Modifying
+    @Query("""
+            update RefreshToken r set r.revokedAt = :now
+            where r.id = :id and r.revokedAt is null and r.expiresAt > :now
+            """)
+    int revokeIfActive(@Param("id") UUID id, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") OffsetDateTime now);
+
+    /** Lote de vencidos para la purga (usa ix_refresh_expires). */
+    @Query("select r.id from RefreshToken r where r.expiresAt < :cutoff")
+    List<UUID> findExpiredIds(@Param("cutoff") OffsetDateTime cutoff, Pageable page);
 }
@@ -2,16 +2,42 @@ package com.scalaris.auth.repo;
 
 import com.scalaris.auth.domain.User;
 import com.scalaris.auth.domain.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByEmailIgnoreCase(String email);
-    boolean existsByEmailIgnoreCase(String email);
+    // Búsquedas por email: reciben el email ya canónico (Emails.canonical) y comparan contra
+    // lower(email) para usar el índice único de expresión uk_app_user_email_lower (V9).
+    @Query("select u from User u where lower(u.email) = :email")
+    Optional<User> findByCanonicalEmail(@Param("email") String email);
+
+    @Query("select count(u) > 0 from User u where lower(u.email) = :email")
+    boolean existsByCanonicalEmail(@Param("email") String email);
 
-    boolean existsByEmail(String email);
     boolean existsByRole(UserRole role);
 
+    /**
+     * Reemplaza el hash solo si sigue siendo {@code oldHash} (re-hash en el login). Toca únicamente
+     * password_hash: no pisa cambios concurrentes del resto de la fila ni dispara UserChangeListener.
+     * 0 = la clave cambió mientras tanto y el hash nuevo se descarta.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :newHash where u.id = :id and u.passwordHash = :oldHash")
+    int upgradePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /** Todos los emails, con cursor JDBC (carga de {@code RegisteredEmails}). Requiere transacción. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamEmails();
 }
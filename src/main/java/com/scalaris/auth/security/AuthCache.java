@@ -0,0 +1,162 @@
+package com.scalaris.auth.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.scalaris.config.AuthCacheProperties;
+import com.scalaris.config.JwtProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache en proceso del camino caliente de autenticación ({@link JwtAuthFilter}):
+ * <ul>
+ *   <li>access tokens ya verificados, por hash SHA-256 del token; cada entrada vence junto con el token.</li>
+ *   <li>estado active por usuario, con TTL corto ({@code security.auth-cache.user-ttl-seconds}).</li>
+ * </ul>
+ * Cualquier cambio persistido de un usuario lo invalida después del commit ({@link UserChangeListener}).
+ * Invalidar es O(1): no recorre los tokens, deja una marca con la generación de la invalidación y cada
+ * token cacheado antes de esa marca se vuelve a verificar en su próximo hit.
+ * Métricas: {@code cache.gets/cache.puts/cache.evictions} con tag {@code cache=auth.tokens|auth.users}.
+ */
+@Component
+public class AuthCache {
+
+    public record VerifiedAccess(UUID userId, String role, Instant expiresAt) {}
+
+    private final boolean enabled;
+    private final Cache<String, CachedToken> tokens;
+    // usuario -> generación de su última invalidación. Vive lo que un access token (los tokens cacheados
+    // antes de la marca vencen antes que ella) y no tiene tope de tamaño: desalojar una marca volvería
+    // a dar por buenos tokens ya invalidados.
+    private final Cache<UUID, Long> invalidations;
+    private final AtomicLong generation = new AtomicLong();
+    // async: la consulta corre en el hilo que pide, fuera del compute del mapa (no bloquea el bin ni
+    // pinnea el carrier con virtual threads), y un invalidate durante la carga descarta el resultado
+    private final AsyncCache<UUID, Boolean> activeUsers;
+
+    public AuthCache(AuthCacheProperties props, JwtProperties jwt, MeterRegistry registry) {
+        this.enabled = props.isEnabled();
+
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(props.getMaxTokens())
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+
+        this.activeUsers = Caffeine.newBuilder()
+                .maximumSize(props.getMaxUsers())
+                .expireAfterWrite(Duration.ofSeconds(props.getUserTtlSeconds()))
+                .recordStats()
+                .buildAsync();
+
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(jwt.getAccessTtlSeconds()))
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, tokens, "auth.tokens");
+        CaffeineCacheMetrics.monitor(registry, activeUsers.synchronous(), "auth.users");
+    }
+
+    /**
+     * Token verificado desde cache o, si no está, con {@code verifier} (que tira excepción si es inválido;
+     * los tokens inválidos no se cachean).
+     */
+    public VerifiedAccess verifiedAccess(String token, Function<String, VerifiedAccess> verifier) {
+        if (!enabled) return verifier.apply(token);
+
+        String key = hash(token);
+        var cached = tokens.get(key, k -> verify(token, verifier));
+        // el Expiry ya las saca, pero entre que vence y que Caffeine limpia puede haber un instante
+        if (cached.access().expiresAt().isBefore(Instant.now())) {
+            tokens.invalidate(key);
+            return verifier.apply(token);
+        }
+        if (invalidatedSince(cached)) {
+            tokens.asMap().remove(key, cached);
+            return tokens.get(key, k -> verify(token, verifier)).access();
+        }
+        return cached.access();
+    }
+
+    // la generación se lee antes de verificar: una invalidación concurrente deja el resultado ya viejo
+    private CachedToken verify(String token, Function<String, VerifiedAccess> verifier) {
+        long gen = generation.get();
+        return new CachedToken(verifier.apply(token), gen);
+    }
+
+    private boolean invalidatedSince(CachedToken cached) {
+        Long invalidatedAt = invalidations.getIfPresent(cached.access().userId());
+        return invalidatedAt != null && invalidatedAt > cached.generation();
+    }
+
+    public boolean isUserActive(UUID userId, Function<UUID, Boolean> loader) {
+        if (!enabled) return loader.apply(userId);
+
+        var cached = activeUsers.getIfPresent(userId); // registra hit/miss
+        if (cached != null) return cached.join();
+
+        // requests concurrentes por el mismo usuario esperan la misma carga
+        var loading = new CompletableFuture<Boolean>();
+        var prior = activeUsers.asMap().putIfAbsent(userId, loading);
+        if (prior != null) return prior.join();
+
+        try {
+            boolean active = loader.apply(userId);
+            loading.complete(active);
+            return active;
+        } catch (RuntimeException ex) {
+            activeUsers.asMap().remove(userId, loading);
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /** Olvida el estado del usuario y todos sus tokens cacheados (baja, cambio de rol, etc.). */
+    public void invalidateUser(UUID userId) {
+        activeUsers.synchronous().invalidate(userId);
+        invalidations.put(userId, generation.incrementAndGet());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 es obligatorio en toda JVM
+        }
+    }
+
+    private record CachedToken(VerifiedAccess access, long generation) {}
+
+    private static final class UntilTokenExpires implements Expiry<String, CachedToken> {
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            long nanos = Duration.between(Instant.now(), value.access().expiresAt()).toNanos();
+            return Math.max(nanos, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.scalaris.auth.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalaris.api.ErrorCodes;
+import com.scalaris.config.RateLimitProperties;
+import com.scalaris.shared.text.Emails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.*;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit de los endpoints públicos caros (BCrypt / lookup de email), antes de {@link JwtAuthFilter}
+ * y antes de tocar la base. Dos buckets por endpoint: uno por IP y otro por email canónico del body.
+ *
+ * <p>No es un {@code @Component} a propósito: lo arma {@code SecurityBeansConfig} y solo corre dentro de
+ * la cadena de Spring Security (como bean, Boot lo registraría además como filtro del contenedor).
+ *
+ * <p>El body de estos endpoints se lee completo acá (a lo sumo {@value #MAX_BODY_BYTES} bytes) y se
+ * re-sirve desde memoria; uno más grande es 413, así que no hay forma de saltear el bucket por email
+ * mandando relleno.
+ *
+ * <p>La IP es {@code getRemoteAddr()}: detrás de un proxy hay que configurar
+ * {@code server.forward-headers-strategy} para que sea la del cliente.
+ * Métrica: {@code auth.rate_limit.rejected} con tag {@code key=ip|email|size}.
+ */
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    // endpoint -> nombre corto para separar buckets; solo POST
+    private static final Map<String, String> LIMITED = Map.of(
+            "/api/v1/auth/login", "login",
+            "/api/v1/auth/register/check-email", "check-email",
+            "/api/v1/auth/register", "register"
+    );
+
+    // los bodies de estos endpoints son de unas decenas de bytes; más grande es 413
+    static final int MAX_BODY_BYTES = 4096;
+
+    private final boolean enabled;
+    private final RateLimiter byIp;
+    private final RateLimiter byEmail;
+    private final ObjectMapper mapper;
+    private final Counter rejectedIp;
+    private final Counter rejectedEmail;
+    private final Counter rejectedSize;
+
+    public AuthRateLimitFilter(RateLimitProperties props, ObjectMapper mapper, MeterRegistry registry) {
+        this.enabled = props.isEnabled();
+        this.byIp = new RateLimiter(props.getIpPerMinute(), props.getIpBurst(), props.getMaxKeys());
+        this.byEmail = new RateLimiter(props.getEmailPerMinute(), props.getEmailBurst(), props.getMaxKeys());
+        this.mapper = mapper;
+        this.rejectedIp = registry.counter("auth.rate_limit.rejected", "key", "ip");
+        this.rejectedEmail = registry.counter("auth.rate_limit.rejected", "key", "email");
+        this.rejectedSize = registry.counter("auth.rate_limit.rejected", "key", "size");
+        registry.gauge("auth.rate_limit.keys", this, f -> f.byIp.size() + f.byEmail.size());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !LIMITED.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+
+        String endpoint = LIMITED.get(request.getServletPath());
+
+        long wait = byIp.tryAcquire(endpoint + '|' + request.getRemoteAddr());
+        if (wait > 0) {
+            rejectedIp.increment();
+            tooMany(response, wait);
+            return;
+        }
+
+        // Content-Length declarado o, si vino chunked, lo que efectivamente llegó: nunca más del tope
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            rejectedSize.increment();
+            tooLarge(response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            rejectedSize.increment();
+            tooLarge(response);
+            return;
+        }
+
+        String email = emailOf(body);
+        if (email != null) {
+            wait = byEmail.tryAcquire(endpoint + '|' + email);
+            if (wait > 0) {
+                rejectedEmail.increment();
+                tooMany(response, wait);
+                return;
+            }
+        }
+
+        chain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String emailOf(byte[] body) {
+        try {
+            JsonNode email = mapper.readTree(body).path("email");
+            return email.isTextual() ? Emails.canonical(email.asText()) : null;
+        } catch (IOException ex) {
+            return null; // JSON roto: lo rechaza el controller con MALFORMED_JSON
+        }
+    }
+
+    private static void tooMany(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader("Retry-After", Long.toString(seconds));
+        error(response, 429, ErrorCodes.TOO_MANY_REQUESTS, "Demasiados intentos. Intenta nuevamente en unos segundos");
+    }
+
+    private static void tooLarge(HttpServletResponse response) throws IOException {
+        // no se leyó el resto del body: que el contenedor no intente reusar la conexión
+        response.setHeader("Connection", "close");
+        error(response, 413, ErrorCodes.PAYLOAD_TOO_LARGE, "El request es demasiado grande");
+    }
+
+    // sin ObjectMapper ni ApiError: rechazar tiene que costar casi nada
+    private static void error(HttpServletResponse response, int status, String code, String message) throws IOException {
+        byte[] json = ("{\"code\":\"" + code + "\","
+                + "\"message\":\"" + message + "\","
+                + "\"timestamp\":\"" + OffsetDateTime.now() + "\",\"violations\":[]}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
+    }
+
+    /** Request con el body ya leído: se sirve desde memoria, tanto bloqueante como con ReadListener. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final ByteArrayInputStream in;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.in = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override public int read() { return in.read(); }
+                @Override public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+                @Override public boolean isFinished() { return in.available() == 0; }
+                @Override public boolean isReady() { return true; }
+
+                // todo el body está en memoria: está disponible ya, y después de leerlo no hay más
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) listener.onDataAvailable();
+                        if (isFinished()) listener.onAllDataRead();
+                    } catch (Throwable t) {
+                        listener.onError(t);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String enc = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    enc != null ? Charset.forName(enc) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.scalaris.auth.security;
+
+import com.scalaris.config.HashingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Elige el costo BCrypt para este host. Mide unos hashes a {@code min-cost} y extrapola
+ * (cada +1 de costo duplica el tiempo) hasta el mayor costo que no pase {@code target-ms},
+ * acotado a [min-cost, max-cost]. Con {@code security.hashing.cost > 0} no mide nada.
+ *
+ * <p>La calibración nunca baja de {@link #FLOOR}, el costo fijo que se usaba antes: en un host lento
+ * el resultado tiene que ser "más lento", no hashes más débiles.
+ */
+public final class BcryptCost {
+
+    private static final Logger log = LoggerFactory.getLogger(BcryptCost.class);
+    private static final int SAMPLES = 3;
+    static final int FLOOR = 12;
+
+    private BcryptCost() {}
+
+    public static int choose(HashingProperties props) {
+        if (props.getCost() > 0) {
+            if (props.getCost() < FLOOR) {
+                log.warn("BCrypt: costo fijo {} por debajo de {} (security.hashing.cost); usar solo en tests",
+                        props.getCost(), FLOOR);
+            }
+            return props.getCost();
+        }
+
+        int min = Math.max(FLOOR, props.getMinCost());
+        int max = Math.max(min, props.getMaxCost());
+
+        var probe = new BCryptPasswordEncoder(min);
+        probe.encode("calibracion"); // warm-up (JIT + SecureRandom)
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long t0 = System.nanoTime();
+            probe.encode("calibracion");
+            samples[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(samples);
+        double ms = samples[SAMPLES / 2] / 1_000_000.0; // mediana
+
+        int cost = min;
+        while (cost < max && ms * 2 <= props.getTargetMs()) {
+            ms *= 2;
+            cost++;
+        }
+
+        log.info("BCrypt: costo {} (~{} ms por hash, objetivo {} ms)", cost, Math.round(ms), props.getTargetMs());
+        return cost;
+    }
+}
@@ -1,6 +1,7 @@
 package com.scalaris.auth.security;
 
 import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.shared.text.Emails;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
@@ -16,7 +17,7 @@ public class JpaUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        var u = users.findByEmailIgnoreCase(email)
+        var u = users.findByCanonicalEmail(Emails.canonical(email))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
         if (!u.isActive()) throw new DisabledException("Usuario inactivo");
 
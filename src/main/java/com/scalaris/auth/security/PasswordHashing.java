@@ -0,0 +1,120 @@
+package com.scalaris.auth.security;
+
+import com.scalaris.config.HashingProperties;
+import com.scalaris.shared.errors.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash/verificación de contraseñas (BCrypt) en un pool propio y acotado, fuera de los hilos de Tomcat.
+ * Una ráfaga de logins ocupa como mucho {@code security.hashing.threads} CPUs; con la cola
+ * ({@code queue-capacity}) llena se rechaza al toque con {@link ServiceUnavailableException} (503 + Retry-After)
+ * en vez de dejar colgados a los workers que atienden el resto de la API.
+ * Los hilos son de plataforma aunque {@code spring.threads.virtual.enabled=true}: BCrypt es CPU pura y
+ * el pool fijo es lo que limita cuántos cores se lleva; el request (virtual o no) solo espera el Future.
+ * Métricas: {@code executor.*} con tag {@code name=auth.hashing} y {@code auth.password.hash} (tiempo de CPU
+ * de cada hash, sin la espera en cola) con tag {@code op=matches|encode}.
+ */
+@Component
+public class PasswordHashing {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+
+    public PasswordHashing(PasswordEncoder encoder, HashingProperties props, MeterRegistry registry) {
+        this.encoder = encoder;
+        this.timeout = Duration.ofMillis(props.getTimeoutMs());
+        this.retryAfter = Duration.ofSeconds(props.getRetryAfterSeconds());
+
+        int threads = props.getThreads() > 0 ? props.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.getQueueCapacity()),
+                new NamedThreads("auth-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(registry, pool, "auth.hashing");
+        this.matchesTimer = hashTimer(registry, "matches");
+        this.encodeTimer = hashTimer(registry, "encode");
+    }
+
+    public boolean matches(CharSequence raw, String hash) {
+        return run(() -> matchesTimer.recordCallable(() -> encoder.matches(raw, hash)));
+    }
+
+    public String encode(CharSequence raw) {
+        return run(() -> encodeTimer.recordCallable(() -> encoder.encode(raw)));
+    }
+
+    /** true si el hash es de otro algoritmo o de un costo menor al actual (no hashea nada, es barato). */
+    public boolean needsUpgrade(String hash) {
+        return encoder.upgradeEncoding(hash);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> f;
+        try {
+            f = pool.submit(task);
+        } catch (RejectedExecutionException ex) {
+            throw busy();
+        }
+
+        try {
+            return f.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            f.cancel(true);
+            throw busy();
+        } catch (InterruptedException ex) {
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String op) {
+        return Timer.builder("auth.password.hash")
+                .description("Tiempo de BCrypt por operación")
+                .tag("op", op)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+
+    private ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("Servidor ocupado, intenta nuevamente en unos segundos", retryAfter);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class NamedThreads implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger seq = new AtomicInteger();
+
+        NamedThreads(String prefix) { this.prefix = prefix; }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            var t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.scalaris.auth.security;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * HS256 con el Mac ya inicializado con la clave una sola vez.
+ * {@code Algorithm.HMAC256} hace {@code Mac.getInstance + init} en cada firma/verificación;
+ * acá cada operación clona el prototipo (sin lookup de provider ni key schedule) y el clon es del hilo
+ * que lo pidió, así que la instancia es thread-safe.
+ */
+final class PrecomputedHmac256 extends Algorithm {
+
+    private static final String JCA_NAME = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+
+    PrecomputedHmac256(String secret) {
+        super("HS256", JCA_NAME);
+        if (secret == null || secret.isBlank()) throw new IllegalArgumentException("security.jwt.secret vacío");
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), JCA_NAME);
+        try {
+            this.prototype = Mac.getInstance(JCA_NAME);
+            this.prototype.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + JCA_NAME, e);
+        }
+    }
+
+    @Override
+    public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+        try {
+            byte[] expected = Base64.getUrlDecoder().decode(jwt.getSignature());
+            byte[] actual = mac(jwt.getHeader().getBytes(StandardCharsets.UTF_8),
+                    jwt.getPayload().getBytes(StandardCharsets.UTF_8));
+            if (!MessageDigest.isEqual(actual, expected)) throw new SignatureVerificationException(this);
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
+    @Override
+    public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+        try {
+            return mac(headerBytes, payloadBytes);
+        } catch (GeneralSecurityException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+        try {
+            return newMac().doFinal(contentBytes);
+        } catch (GeneralSecurityException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    private byte[] mac(byte[] header, byte[] payload) throws GeneralSecurityException {
+        Mac mac = newMac();
+        mac.update(header);
+        mac.update((byte) '.');
+        mac.update(payload);
+        return mac.doFinal();
+    }
+
+    private Mac newMac() throws GeneralSecurityException {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // provider sin clone: camino normal (lo mismo que hace Algorithm.HMAC256)
+            Mac mac = Mac.getInstance(JCA_NAME);
+            mac.init(key);
+            return mac;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.scalaris.auth.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket lock-free (GCRA): por clave se guarda solo el "theoretical arrival time" en un AtomicLong
+ * y cada request es un CAS. El ConcurrentHashMap ya reparte la contención por bins.
+ *
+ * <p>Memoria acotada: con {@code maxKeys} claves vivas, las claves nuevas comparten un único bucket de
+ * desborde (se limita a todo ese tráfico junto en vez de crecer sin techo). Las claves que ya recuperaron
+ * el burst completo se barren cada tanto, oportunísticamente, desde el propio {@link #tryAcquire}.
+ */
+final class RateLimiter {
+
+    private static final long SWEEP_EVERY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final long intervalNanos;   // 1 token cada intervalNanos
+    private final long burstNanos;      // cuánto puede adelantarse el TAT (= burst tokens)
+    private final int maxKeys;
+
+    private final ConcurrentHashMap<String, AtomicLong> cells = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_EVERY_NANOS);
+
+    RateLimiter(int perMinute, int burst, int maxKeys) {
+        if (perMinute <= 0 || burst <= 0) throw new IllegalArgumentException("rate-limit: valores deben ser > 0");
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        this.burstNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /** 0 si pasa; si no, cuántos nanos faltan para el próximo token. */
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+
+        AtomicLong cell = cells.get(key);
+        if (cell == null) {
+            cell = cells.size() < maxKeys
+                    ? cells.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE))
+                    : overflow;
+        }
+
+        while (true) {
+            long tat = cell.get();
+            long base = tat == Long.MIN_VALUE ? now : Math.max(tat, now);
+            long newTat = base + intervalNanos;
+            long ahead = newTat - now;
+            if (ahead > burstNanos) return ahead - burstNanos;
+            if (cell.compareAndSet(tat, newTat)) return 0;
+        }
+    }
+
+    int size() {
+        return cells.size();
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_EVERY_NANOS)) return;
+        // TAT en el pasado = bucket lleno: la clave no aporta nada y se puede olvidar
+        cells.values().removeIf(c -> {
+            long tat = c.get();
+            return tat == Long.MIN_VALUE || tat - now <= 0;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.scalaris.auth.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.scalaris.config.JwtProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firma y verificación de JWT compartidas por {@link JwtService} y {@code TokenService}.
+ * El algoritmo (con la clave HMAC ya inicializada) y el verifier se arman una vez al arrancar;
+ * los dos son inmutables y thread-safe, así que se reusan en todos los requests.
+ * Métricas: {@code auth.jwt.sign} y {@code auth.jwt.verify} (tag {@code outcome=valid|invalid}).
+ */
+@Component
+public class TokenCodec {
+
+    private final String issuer;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    private final Timer signTimer;
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+
+    public TokenCodec(JwtProperties props, MeterRegistry registry) {
+        this.issuer = props.getIssuer();
+        this.algorithm = new PrecomputedHmac256(props.getSecret());
+        this.verifier = JWT.require(algorithm).withIssuer(issuer).build();
+
+        this.signTimer = registry.timer("auth.jwt.sign");
+        this.verifyValid = registry.timer("auth.jwt.verify", "outcome", "valid");
+        this.verifyInvalid = registry.timer("auth.jwt.verify", "outcome", "invalid");
+    }
+
+    /** Builder con el issuer ya cargado. */
+    public JWTCreator.Builder builder() {
+        return JWT.create().withIssuer(issuer);
+    }
+
+    public String sign(JWTCreator.Builder builder) {
+        long t0 = System.nanoTime();
+        try {
+            return builder.sign(algorithm);
+        } finally {
+            signTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public DecodedJWT verify(String token) throws JWTVerificationException {
+        long t0 = System.nanoTime();
+        try {
+            var decoded = verifier.verify(token);
+            verifyValid.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            return decoded;
+        } catch (JWTVerificationException ex) {
+            verifyInvalid.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.scalaris.auth.security;
+
+import com.scalaris.auth.domain.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalida {@link AuthCache} cuando se persiste un cambio de {@link User} (baja, rol, password...),
+ * sea cual sea el camino que lo hizo. Se invalida después del commit: antes, otro request podría
+ * volver a cachear el estado viejo que todavía ve en la DB.
+ */
+@Component
+public class UserChangeListener {
+
+    private final AuthCache cache;
+
+    public UserChangeListener(AuthCache cache) {
+        this.cache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void changed(User user) {
+        var userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateUser(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateUser(userId);
+            }
+        });
+    }
+}
@@ -1,28 +1,72 @@
 package com.scalaris.auth.service;
 
+import com.scalaris.auth.domain.User;
 import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.security.PasswordHashing;
 import com.scalaris.auth.web.dto.LoginRequest;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.scalaris.shared.errors.ServiceUnavailableException;
+import com.scalaris.shared.text.Emails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository users;
-    private final PasswordEncoder encoder;
+    private final PasswordHashing hashing;
+    private final MeterRegistry registry;
 
-    public AuthService(UserRepository users, PasswordEncoder encoder) {
+    public AuthService(UserRepository users, PasswordHashing hashing, MeterRegistry registry) {
         this.users = users;
-        this.encoder = encoder;
+        this.hashing = hashing;
+        this.registry = registry;
+    }
+
+    /** Métrica {@code auth.login} con tag {@code outcome=success|invalid|error}. */
+    public User authenticate(LoginRequest req) {
+        var sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            var user = verify(req);
+            outcome = "success";
+            return user;
+        } catch (InvalidCredentialsException ex) {
+            outcome = "invalid";
+            throw ex;
+        } finally {
+            sample.stop(registry.timer("auth.login", "outcome", outcome));
+        }
     }
 
-    public com.scalaris.auth.domain.User authenticate(LoginRequest req) {
-        var user = users.findByEmailIgnoreCase(req.email().trim())
+    private User verify(LoginRequest req) {
+        var user = users.findByCanonicalEmail(Emails.canonical(req.email()))
                 .orElseThrow(InvalidCredentialsException::new);
 
         if (!user.isActive()) throw new InvalidCredentialsException();
-        if (!encoder.matches(req.password(), user.getPasswordHash())) throw new InvalidCredentialsException();
+        if (!hashing.matches(req.password(), user.getPasswordHash())) throw new InvalidCredentialsException();
 
+        upgradeHashIfNeeded(user, req.password());
         return user;
     }
+
+    /**
+     * Hash viejo (sin prefijo {bcrypt} o con costo menor al calibrado): se re-hashea con la clave recién
+     * validada. Si el pool está saturado no se hace y queda para el próximo login.
+     * {@code user} viene de otra transacción: se actualiza solo el hash, condicionado al que se validó.
+     */
+    private void upgradeHashIfNeeded(User user, String rawPassword) {
+        String current = user.getPasswordHash();
+        if (!hashing.needsUpgrade(current)) return;
+        try {
+            String upgraded = hashing.encode(rawPassword);
+            if (users.upgradePasswordHash(user.getId(), current, upgraded) == 1) user.setPasswordHash(upgraded);
+        } catch (ServiceUnavailableException ex) {
+            log.debug("Upgrade de hash postergado para {}", user.getId());
+        }
+    }
 }
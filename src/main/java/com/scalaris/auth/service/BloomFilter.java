@@ -0,0 +1,82 @@
+package com.scalaris.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter de strings, thread-safe sin locks (cada put es un OR atómico por palabra).
+ * k posiciones por double hashing sobre un hash de 64 bits (FNV-1a + mezcla final de murmur3).
+ * No admite borrado: lo que se saca de la fuente se olvida al reconstruir.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray(Math.toIntExact(bits / 64));
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /** Dimensionado óptimo: m = -n·ln(p)/ln(2)², k = m/n·ln(2). */
+    static BloomFilter create(long expected, double fpp) {
+        long n = Math.max(expected, 1);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (ln2 * ln2));
+        m = Math.max(64, (m + 63) / 64 * 64);
+        int k = (int) Math.max(1, Math.round((double) m / n * ln2));
+        return new BloomFilter(m, k);
+    }
+
+    void put(String value) {
+        long h1 = hash(value);
+        long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            long prev = words.getAndAccumulate((int) (bit >>> 6), mask, (a, b) -> a | b);
+            if ((prev & mask) == 0) bitsSet.incrementAndGet();
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    long sizeBytes() {
+        return bits / 8;
+    }
+
+    /** Tasa de falsos positivos estimada con el llenado actual: (bits en 1 / m)^k. */
+    double expectedFpp() {
+        return Math.pow((double) bitsSet.get() / bits, hashes);
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return fmix64(h);
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -3,8 +3,10 @@ package com.scalaris.auth.service;
 import com.scalaris.auth.domain.PasswordResetToken;
 import com.scalaris.auth.repo.PasswordResetTokenRepository;
 import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.security.PasswordHashing;
 import com.scalaris.auth.web.dto.PasswordResetConfirmRequest;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.scalaris.mail.service.MailOutbox;
+import com.scalaris.shared.text.Emails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,41 +16,43 @@ import java.util.UUID;
 @Service
 public class PasswordResetService {
 
+    /** Transporte real (SMTP, API, mock). Lo usa {@code MailOutboxDispatcher}, nunca el request. */
     public interface MailSender {
         void send(String to, String subject, String body);
     }
 
     private final UserRepository users;
     private final PasswordResetTokenRepository tokens;
-    private final PasswordEncoder encoder;
-    private final MailSender mail;
+    private final PasswordHashing hashing;
+    private final MailOutbox mail;
 
     public PasswordResetService(UserRepository users,
                                 PasswordResetTokenRepository tokens,
-                                PasswordEncoder encoder,
-                                MailSender mail) {
+                                PasswordHashing hashing,
+                                MailOutbox mail) {
         this.users = users;
         this.tokens = tokens;
-        this.encoder = encoder;
+        this.hashing = hashing;
         this.mail = mail;
     }
 
     @Transactional
     public void request(String email) {
         // Respuesta genérica para no filtrar si existe o no.
-        var userOpt = users.findByEmailIgnoreCase(email);
+        var userOpt = users.findByCanonicalEmail(Emails.canonical(email));
         if (userOpt.isEmpty()) return;
 
         var user = userOpt.get();
 
         UUID resetId = UUID.randomUUID();
         String code = random6Digits();
-        String codeHash = encoder.encode(code);
+        String codeHash = hashing.encode(code);
         var expires = OffsetDateTime.now().plusHours(24);
 
         tokens.save(new PasswordResetToken(resetId, user.getId(), codeHash, expires));
 
-        mail.send(user.getEmail(),
+        // mismo tx que el token: si algo falla no queda un mail con un código que no existe (y viceversa)
+        mail.enqueue(user.getEmail(),
                 "Recuperación de contraseña",
                 "Tu código: " + code + "\nID: " + resetId);
     }
@@ -65,7 +69,7 @@ public class PasswordResetService {
         if (prt.isUsed() || prt.isExpired()) {
             throw new IllegalArgumentException("Código inválido o caducado");
         }
-        if (!encoder.matches(req.code(), prt.getCodeHash())) {
+        if (!hashing.matches(req.code(), prt.getCodeHash())) {
             throw new IllegalArgumentException("Código inválido o caducado");
         }
 
@@ -75,7 +79,7 @@ public class PasswordResetService {
         user.setFullName(user.getFullName()); // no-op, solo para mostrar que usamos entidad
         // actualizar password
         // (tu User no tiene setter, lo cual es correcto; agregá setPasswordHash)
-        // user.setPasswordHash(encoder.encode(req.newPassword()));
+        // user.setPasswordHash(hashing.encode(req.newPassword()));
 
         prt.markUsed();
         tokens.save(prt);
@@ -0,0 +1,129 @@
+package com.scalaris.auth.service;
+
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.config.EmailFilterProperties;
+import com.scalaris.shared.text.Emails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter de los emails (canónicos) de app_user, para contestar "disponible" sin ir a Postgres.
+ * Un "puede estar" se confirma contra la DB; un "no está" se contesta sin consultarla.
+ *
+ * <p><b>Supone una sola instancia de la API.</b> El filtro vive en memoria de cada proceso: las altas
+ * locales entran con {@link #add(String)} apenas se guardan, pero las de otra instancia recién se ven en
+ * la próxima reconstrucción ({@code security.email-filter.rebuild-interval-ms}). Con varias instancias,
+ * durante esa ventana check-email puede contestar "disponible" para un email recién registrado en otra;
+ * el registro igual lo rechaza el índice único (uk_app_user_email_lower) y termina en
+ * {@link EmailAlreadyRegisteredException}, solo se gasta un BCrypt. Si eso no es aceptable, bajar el
+ * intervalo o desactivarlo ({@code security.email-filter.enabled=false}) y todo va a la DB.
+ *
+ * <p>Se carga al arrancar y se reconstruye en cada intervalo (también para redimensionar si creció).
+ * Hasta la primera carga todo va a la DB.
+ *
+ * <p>Métricas: {@code auth.email_filter.bytes}, {@code auth.email_filter.fpp} (estimada con el llenado
+ * actual), {@code auth.email_filter.entries} y {@code auth.email_filter.lookups} ({@code result=absent|maybe}).
+ */
+@Component
+public class RegisteredEmails {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmails.class);
+
+    private final UserRepository users;
+    private final TransactionTemplate readTx;
+    private final EmailFilterProperties props;
+
+    private volatile BloomFilter current;   // null = todavía no cargado (o deshabilitado)
+    private volatile BloomFilter building;  // durante una recarga las altas van a los dos
+    private final AtomicLong entries = new AtomicLong();
+
+    private final Counter absent;
+    private final Counter maybe;
+
+    public RegisteredEmails(UserRepository users,
+                            PlatformTransactionManager txManager,
+                            EmailFilterProperties props,
+                            MeterRegistry registry) {
+        this.users = users;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.props = props;
+
+        this.absent = registry.counter("auth.email_filter.lookups", "result", "absent");
+        this.maybe = registry.counter("auth.email_filter.lookups", "result", "maybe");
+        registry.gauge("auth.email_filter.bytes", this, r -> r.current == null ? 0 : r.current.sizeBytes());
+        registry.gauge("auth.email_filter.fpp", this, r -> r.current == null ? 1 : r.current.expectedFpp());
+        registry.gauge("auth.email_filter.entries", entries);
+    }
+
+    /** false solo si el email seguro no está registrado. */
+    public boolean mightExist(String email) {
+        var filter = current;
+        String e = Emails.canonical(email);
+        if (filter == null || e == null) return true;
+
+        boolean hit = filter.mightContain(e);
+        (hit ? maybe : absent).increment();
+        return hit;
+    }
+
+    public void add(String email) {
+        String e = Emails.canonical(email);
+        if (e == null) return;
+        var b = building;
+        if (b != null) b.put(e);
+        var c = current;
+        if (c != null) {
+            c.put(e);
+            entries.incrementAndGet();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${security.email-filter.rebuild-interval-ms:600000}",
+               fixedDelayString = "${security.email-filter.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!props.isEnabled()) return;
+
+        long started = System.nanoTime();
+        long expected = Math.max(props.getExpectedEmails(), entries.get() * 2);
+        var next = BloomFilter.create(expected, props.getFalsePositiveRate());
+        // se publica antes de leer: un alta que confirme después del snapshot igual llega por add()
+        building = next;
+        try {
+            var loaded = new AtomicLong();
+            readTx.executeWithoutResult(status -> {
+                try (var emails = users.streamEmails()) {
+                    emails.forEach(e -> {
+                        next.put(Emails.canonical(e));
+                        loaded.incrementAndGet();
+                    });
+                }
+            });
+            current = next;
+            entries.set(loaded.get());
+            log.debug("Filtro de emails: {} cargados, {} KB, fpp estimada {} ({} ms)", loaded,
+                    next.sizeBytes() / 1024, String.format("%.4f", next.expectedFpp()),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // se sigue con el filtro anterior (o sin filtro: todo a la DB)
+            log.warn("Filtro de emails: no se pudo recargar", ex);
+        } finally {
+            building = null;
+        }
+    }
+}
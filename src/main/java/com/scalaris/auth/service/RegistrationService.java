@@ -3,23 +3,35 @@ package com.scalaris.auth.service;
 import com.scalaris.auth.domain.User;
 import com.scalaris.auth.domain.UserRole;
 import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.security.PasswordHashing;
 import com.scalaris.auth.web.dto.RegisterRequest;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.scalaris.shared.text.Emails;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.Set;
+
 @Service
 public class RegistrationService {
 
+    // unicidad del email en app_user (V9__app_user_email_lower_index.sql)
+    private static final Set<String> EMAIL_CONSTRAINTS = Set.of("uk_app_user_email_lower");
+
     private final UserRepository users;
-    private final PasswordEncoder encoder;
+    private final PasswordHashing hashing;
+    private final RegisteredEmails registered;
 
-    public RegistrationService(UserRepository users, PasswordEncoder encoder) {
+    public RegistrationService(UserRepository users, PasswordHashing hashing, RegisteredEmails registered) {
         this.users = users;
-        this.encoder = encoder;
+        this.hashing = hashing;
+        this.registered = registered;
     }
 
+    /** Un "no está" del filtro se contesta sin ir a la DB; solo los probables se confirman. */
     public boolean isEmailAvailable(String email) {
-        return !users.existsByEmailIgnoreCase(email);
+        return !registered.mightExist(email) || !users.existsByCanonicalEmail(Emails.canonical(email));
     }
 
     public User register(RegisterRequest req) {
@@ -29,11 +41,12 @@ public class RegistrationService {
         if (!Boolean.TRUE.equals(req.acceptedTerms())) {
             throw new IllegalArgumentException("Debe aceptar los términos");
         }
-        if (users.existsByEmailIgnoreCase(req.email())) {
+        // chequeo previo solo para no gastar un BCrypt en vano; la garantía es el índice único
+        if (!isEmailAvailable(req.email())) {
             throw new EmailAlreadyRegisteredException();
         }
 
-        String hash = encoder.encode(req.password());
+        String hash = hashing.encode(req.password());
 
         var user = new User(
                 req.fullName(),
@@ -45,6 +58,23 @@ public class RegistrationService {
                 true
         );
 
-        return users.save(user);
+        User saved;
+        try {
+            saved = users.save(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (isEmailConflict(ex)) throw new EmailAlreadyRegisteredException();
+            throw ex;
+        }
+        registered.add(saved.getEmail());
+        return saved;
+    }
+
+    private static boolean isEmailConflict(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return EMAIL_CONSTRAINTS.contains(cve.getConstraintName().toLowerCase(Locale.ROOT));
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,98 @@
+package com.scalaris.auth.service;
+
+import com.scalaris.auth.repo.PasswordResetTokenRepository;
+import com.scalaris.auth.repo.RefreshTokenRepository;
+import com.scalaris.config.TokenRetentionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Purga de refresh_token y password_reset_token vencidos (expires_at + gracia).
+ * Un token vencido ya no pasa la verificación del JWT/código, así que la fila no aporta nada;
+ * los revocados se conservan hasta vencer porque sirven para detectar reuso.
+ *
+ * <p>Borra de a {@code batch-size} filas, cada lote en su propia transacción corta, para no tomar
+ * locks largos ni generar un WAL gigante. Métricas: {@code auth.token.retention.deleted} (tag
+ * {@code table}) y {@code auth.token.retention.run}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.token-retention", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TokenRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRetentionJob.class);
+
+    private final RefreshTokenRepository refreshTokens;
+    private final PasswordResetTokenRepository resetTokens;
+    private final TransactionTemplate tx;
+    private final TokenRetentionProperties props;
+
+    private final Counter refreshDeleted;
+    private final Counter resetDeleted;
+    private final Timer runTimer;
+
+    public TokenRetentionJob(RefreshTokenRepository refreshTokens,
+                             PasswordResetTokenRepository resetTokens,
+                             PlatformTransactionManager txManager,
+                             TokenRetentionProperties props,
+                             MeterRegistry registry) {
+        this.refreshTokens = refreshTokens;
+        this.resetTokens = resetTokens;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+        this.refreshDeleted = registry.counter("auth.token.retention.deleted", "table", "refresh_token");
+        this.resetDeleted = registry.counter("auth.token.retention.deleted", "table", "password_reset_token");
+        this.runTimer = registry.timer("auth.token.retention.run");
+    }
+
+    @Scheduled(cron = "${security.token-retention.cron:0 17 3 * * *}")
+    public void purge() {
+        runTimer.record(() -> {
+            var cutoff = OffsetDateTime.now().minusHours(props.getGraceHours());
+            long refresh = purge(cutoff, refreshTokens::findExpiredIds, refreshTokens::deleteAllByIdInBatch, refreshDeleted);
+            long reset = purge(cutoff, resetTokens::findExpiredIds, resetTokens::deleteAllByIdInBatch, resetDeleted);
+            if (refresh + reset > 0) {
+                log.info("Purga de tokens: {} refresh_token, {} password_reset_token (vencidos antes de {})",
+                        refresh, reset, cutoff);
+            }
+        });
+    }
+
+    private long purge(OffsetDateTime cutoff,
+                       IdsQuery findExpired,
+                       Consumer<List<UUID>> delete,
+                       Counter deleted) {
+        var page = PageRequest.of(0, props.getBatchSize());
+        long total = 0;
+
+        for (int i = 0; i < props.getMaxBatchesPerRun(); i++) {
+            Integer n = tx.execute(status -> {
+                var ids = findExpired.apply(cutoff, page);
+                if (!ids.isEmpty()) delete.accept(ids);
+                return ids.size();
+            });
+            deleted.increment(n);
+            total += n;
+            if (n < props.getBatchSize()) break;
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface IdsQuery {
+        List<UUID> apply(OffsetDateTime cutoff, PageRequest page);
+    }
+}
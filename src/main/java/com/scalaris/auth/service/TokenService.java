@@ -1,12 +1,12 @@
 package com.scalaris.auth.service;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.scalaris.auth.domain.RefreshToken;
 import com.scalaris.auth.domain.User;
+import com.scalaris.auth.domain.UserRole;
 import com.scalaris.auth.repo.RefreshTokenRepository;
+import com.scalaris.auth.security.TokenCodec;
 import com.scalaris.config.JwtProperties;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,26 +19,22 @@ import java.util.UUID;
 public class TokenService {
 
     private final JwtProperties props;
+    private final TokenCodec codec;
     private final RefreshTokenRepository refreshRepo;
 
-    public TokenService(JwtProperties props, RefreshTokenRepository refreshRepo) {
+    public TokenService(JwtProperties props, TokenCodec codec, RefreshTokenRepository refreshRepo) {
         this.props = props;
+        this.codec = codec;
         this.refreshRepo = refreshRepo;
     }
 
     public String generateAccessToken(User user) {
-        return generateJwt(user, props.getAccessTtlSeconds(), "ACCESS", null);
+        return generateAccessToken(user.getId(), user.getEmail(), user.getRole());
     }
 
     @Transactional
     public String generateAndStoreRefreshToken(User user) {
-        UUID jti = UUID.randomUUID();
-        String jwt = generateJwt(user, props.getRefreshTtlSeconds(), "REFRESH", jti);
-
-        OffsetDateTime expiresAt = OffsetDateTime.now().plusSeconds(props.getRefreshTtlSeconds());
-        refreshRepo.save(new RefreshToken(jti, user.getId(), expiresAt));
-
-        return jwt;
+        return generateAndStoreRefreshToken(user.getId(), user.getEmail(), user.getRole(), null);
     }
 
     @Transactional
@@ -48,74 +44,93 @@ public class TokenService {
         return new IssuedTokens(access, props.getAccessTtlSeconds(), refresh, props.getRefreshTtlSeconds());
     }
 
-    @Transactional
-    public IssuedTokens refresh(com.auth0.jwt.interfaces.DecodedJWT decoded, User user) {
-        if (!"REFRESH".equals(decoded.getClaim("type").asString())) {
-            throw new com.auth0.jwt.exceptions.JWTVerificationException("Token no es REFRESH");
-        }
-        if (decoded.getId() == null) {
-            throw new com.auth0.jwt.exceptions.JWTVerificationException("Refresh sin jti");
-        }
-
-        java.util.UUID jti = java.util.UUID.fromString(decoded.getId());
-        java.util.UUID subUserId = java.util.UUID.fromString(decoded.getSubject());
-
-        if (!subUserId.equals(user.getId())) {
-            throw new com.auth0.jwt.exceptions.JWTVerificationException("Refresh no pertenece al usuario");
+    /**
+     * Rotación de /auth/refresh: una verificación del JWT, una consulta (refresh + usuario), el
+     * compare-and-revoke y el insert del sucesor en la misma familia.
+     * Si el refresh ya estaba revocado (o lo rotó otro request en paralelo) es un reuso: se revoca
+     * la familia entera y hay que volver a loguearse. noRollbackFor para que esa revocación quede confirmada.
+     */
+    @Transactional(noRollbackFor = JWTVerificationException.class)
+    public IssuedTokens refresh(String refreshJwt) {
+        var decoded = verify(refreshJwt);
+        UUID jti = refreshJti(decoded);
+
+        var s = refreshRepo.findSession(jti)
+                .orElseThrow(() -> new JWTVerificationException("Refresh revocado o inexistente"));
+
+        if (!s.userId().toString().equals(decoded.getSubject())) {
+            throw new JWTVerificationException("Refresh no pertenece al usuario");
         }
 
-        var row = refreshRepo.findByIdAndRevokedAtIsNull(jti)
-                .orElseThrow(() -> new com.auth0.jwt.exceptions.JWTVerificationException("Refresh revocado o inexistente"));
+        var now = OffsetDateTime.now();
+        if (s.revokedAt() != null) throw reuse(s.familyId(), now);
+        if (!s.expiresAt().isAfter(now)) throw new JWTVerificationException("Refresh expirado");
+        if (!s.active()) throw new JWTVerificationException("Usuario inactivo");
 
-        if (row.isExpired()) throw new com.auth0.jwt.exceptions.JWTVerificationException("Refresh expirado");
+        // el UPDATE condicional es el que decide: si dio 0, otro request lo rotó entre medio
+        if (refreshRepo.revokeIfActive(jti, now) == 0) throw reuse(s.familyId(), now);
 
-        row.revokeNow();
-        refreshRepo.save(row);
-
-        String newAccess = generateAccessToken(user);
-        String newRefresh = generateAndStoreRefreshToken(user);
+        String newAccess = generateAccessToken(s.userId(), s.email(), s.role());
+        String newRefresh = generateAndStoreRefreshToken(s.userId(), s.email(), s.role(), s.familyId());
 
         return new IssuedTokens(newAccess, props.getAccessTtlSeconds(), newRefresh, props.getRefreshTtlSeconds());
     }
 
     @Transactional
     public void revokeRefresh(String refreshJwt) {
-        DecodedJWT decoded = verify(refreshJwt);
+        UUID jti = refreshJti(verify(refreshJwt));
 
+        if (refreshRepo.revokeIfActive(jti, OffsetDateTime.now()) == 0) {
+            throw new JWTVerificationException("Refresh inválido");
+        }
+    }
+
+    public DecodedJWT verify(String token) {
+        return codec.verify(token);
+    }
+
+    private static UUID refreshJti(DecodedJWT decoded) {
         if (!"REFRESH".equals(decoded.getClaim("type").asString())) {
             throw new JWTVerificationException("Token no es REFRESH");
         }
         if (decoded.getId() == null) throw new JWTVerificationException("Refresh sin jti");
+        return UUID.fromString(decoded.getId());
+    }
 
-        UUID jti = UUID.fromString(decoded.getId());
-
-        RefreshToken row = refreshRepo.findByIdAndRevokedAtIsNull(jti)
-                .orElseThrow(() -> new JWTVerificationException("Refresh inválido"));
+    private JWTVerificationException reuse(UUID familyId, OffsetDateTime now) {
+        refreshRepo.revokeFamily(familyId, now);
+        return new JWTVerificationException("Refresh reutilizado: sesión revocada");
+    }
 
-        row.revokeNow();
-        refreshRepo.save(row);
+    private String generateAccessToken(UUID userId, String email, UserRole role) {
+        return generateJwt(userId, email, role, props.getAccessTtlSeconds(), "ACCESS", null);
     }
 
-    public DecodedJWT verify(String token) {
-        Algorithm alg = Algorithm.HMAC256(props.getSecret());
-        return JWT.require(alg).withIssuer(props.getIssuer()).build().verify(token);
+    /** {@code familyId} null = login nuevo (el refresh arranca su propia familia). */
+    private String generateAndStoreRefreshToken(UUID userId, String email, UserRole role, UUID familyId) {
+        UUID jti = UUID.randomUUID();
+        String jwt = generateJwt(userId, email, role, props.getRefreshTtlSeconds(), "REFRESH", jti);
+
+        OffsetDateTime expiresAt = OffsetDateTime.now().plusSeconds(props.getRefreshTtlSeconds());
+        refreshRepo.save(new RefreshToken(jti, userId, familyId == null ? jti : familyId, expiresAt));
+
+        return jwt;
     }
 
-    private String generateJwt(User user, long ttlSeconds, String type, UUID jti) {
-        Algorithm alg = Algorithm.HMAC256(props.getSecret());
+    private String generateJwt(UUID userId, String email, UserRole role, long ttlSeconds, String type, UUID jti) {
         Date exp = new Date(System.currentTimeMillis() + ttlSeconds * 1000);
 
-        var builder = JWT.create()
-                .withIssuer(props.getIssuer())
-                .withSubject(user.getId().toString()) // sub = userId
+        var builder = codec.builder()
+                .withSubject(userId.toString()) // sub = userId
+                .withClaim("uid", userId.toString()) // mismo claim que JwtService
                 .withClaim("type", type)
-                .withClaim("email", user.getEmail())
-                .withClaim("role", user.getRole().name())
+                .withClaim("email", email)
+                .withClaim("role", role.name())
                 .withExpiresAt(exp);
 
         if (jti != null) builder.withJWTId(jti.toString());
 
-        return builder.sign(alg);
+        return codec.sign(builder);
     }
 
     public record IssuedTokens(
@@ -1,8 +1,6 @@
 package com.scalaris.auth.web;
 
-import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.scalaris.api.ApiError;
-import com.scalaris.auth.repo.UserRepository;
 import com.scalaris.auth.service.AuthService;
 import com.scalaris.auth.service.TokenService;
 import com.scalaris.auth.web.dto.*;
@@ -17,8 +15,6 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.UUID;
-
 @Tag(name = "Auth - Login", description = "Inicio de sesión, refresh y logout.")
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -26,12 +22,10 @@ public class LoginController {
 
     private final AuthService auth;
     private final TokenService tokens;
-    private final UserRepository users;
 
-    public LoginController(AuthService auth, TokenService tokens, UserRepository users) {
+    public LoginController(AuthService auth, TokenService tokens) {
         this.auth = auth;
         this.tokens = tokens;
-        this.users = users;
     }
 
     @Operation(summary = "Iniciar sesión",
@@ -92,15 +86,7 @@ public class LoginController {
             )
             @RequestBody @Valid RefreshRequest req
     ) {
-        var decoded = tokens.verify(req.refreshToken());
-        UUID userId = UUID.fromString(decoded.getSubject());
-
-        var user = users.findById(userId)
-                .orElseThrow(() -> new JWTVerificationException("Usuario inexistente"));
-
-        // Nota: TokenService.refresh(...) hoy vuelve a verificar el JWT internamente.
-        // Si querés evitar doble verify, abajo te dejo un patch opcional.
-        var issued = tokens.refresh(decoded, user);
+        var issued = tokens.refresh(req.refreshToken());
 
         return ResponseEntity.ok(new TokenResponse(
                 "Bearer",
@@ -7,11 +7,15 @@ import com.scalaris.api.FieldViolation;
 import com.scalaris.auth.service.EmailAlreadyRegisteredException;
 import com.scalaris.auth.service.InvalidCredentialsException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -120,6 +124,24 @@ public class ApiExceptionHandler {
                 .body(ApiError.of(ErrorCodes.METHOD_NOT_ALLOWED, "Método no permitido"));
     }
 
+    // ---------------------------
+    // 503 - sobrecarga (pool de hashing lleno, etc.)
+    // ---------------------------
+    @ExceptionHandler(com.scalaris.shared.errors.ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> unavailable(com.scalaris.shared.errors.ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(ApiError.of(ErrorCodes.SERVICE_UNAVAILABLE, safe(ex.getMessage(), "Servicio no disponible")));
+    }
+
+    // Pool JDBC agotado (Hikari connection-timeout): no es un error del request, que reintente
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ApiError> noConnection(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiError.of(ErrorCodes.SERVICE_UNAVAILABLE, "Servidor ocupado, intenta nuevamente en unos segundos"));
+    }
+
     // ---------------------------
     // 500 - fallback
     // ---------------------------
@@ -143,10 +165,24 @@ public class ApiExceptionHandler {
                 .body(ApiError.of("NOT_FOUND", ex.getMessage()));
     }
 
+    // @Version: otro request confirmó la misma fila entre nuestra lectura y el UPDATE
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> optimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiError.of("CONFLICT", "El registro fue modificado por otro usuario. Recárgalo e intenta nuevamente"));
+    }
+
     @ExceptionHandler(com.scalaris.shared.errors.ConflictException.class)
     public ResponseEntity<ApiError> conflict(com.scalaris.shared.errors.ConflictException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(ApiError.of("CONFLICT", ex.getMessage()));
     }
 
+    // If-Match con ETag débil: RFC 9110 exige comparación fuerte, no se puede evaluar
+    @ExceptionHandler(com.scalaris.shared.errors.PreconditionFailedException.class)
+    public ResponseEntity<ApiError> preconditionFailed(com.scalaris.shared.errors.PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiError.of(ErrorCodes.PRECONDITION_FAILED, safe(ex.getMessage(), "Precondición fallida")));
+    }
+
 }
@@ -0,0 +1,23 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.auth-cache")
+public class AuthCacheProperties {
+    private boolean enabled = true;
+    private long maxTokens = 10_000;    // access tokens verificados (expiran junto con el token)
+    private long maxUsers = 10_000;     // estado active por usuario
+    private long userTtlSeconds = 60;   // cuánto puede tardar en verse una baja sin invalidación explícita
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getMaxTokens() { return maxTokens; }
+    public void setMaxTokens(long maxTokens) { this.maxTokens = maxTokens; }
+
+    public long getMaxUsers() { return maxUsers; }
+    public void setMaxUsers(long maxUsers) { this.maxUsers = maxUsers; }
+
+    public long getUserTtlSeconds() { return userTtlSeconds; }
+    public void setUserTtlSeconds(long userTtlSeconds) { this.userTtlSeconds = userTtlSeconds; }
+}
@@ -26,8 +26,9 @@ public class ConfiguracionCors implements WebMvcConfigurer {
         ));
 
         configuration.setAllowedMethods(List.of("GET", "POST", "OPTIONS", "PUT", "DELETE", "PATCH"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "If-None-Match", "If-Match"));
         configuration.addExposedHeader("Authorization");
+        configuration.addExposedHeader("ETag");
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,23 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.email-filter")
+public class EmailFilterProperties {
+    private boolean enabled = true;
+    private long expectedEmails = 100_000;      // capacidad mínima; al reconstruir se usa el doble de lo cargado si es mayor
+    private double falsePositiveRate = 0.01;
+    private long rebuildIntervalMs = 600_000;   // recarga desde la DB; con varias instancias, cuánto tarda en verse un alta de otra
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getExpectedEmails() { return expectedEmails; }
+    public void setExpectedEmails(long expectedEmails) { this.expectedEmails = expectedEmails; }
+
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+    public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+    public long getRebuildIntervalMs() { return rebuildIntervalMs; }
+    public void setRebuildIntervalMs(long rebuildIntervalMs) { this.rebuildIntervalMs = rebuildIntervalMs; }
+}
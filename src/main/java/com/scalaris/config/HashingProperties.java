@@ -0,0 +1,41 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.hashing")
+public class HashingProperties {
+    private int threads = 0;              // 0 = cantidad de CPUs
+    private int queueCapacity = 32;       // pedidos esperando hilo; lleno => 503
+    private long timeoutMs = 5_000;       // espera máxima del request por su hash
+    private long retryAfterSeconds = 2;   // valor de Retry-After en el 503
+
+    // costo BCrypt: si cost > 0 se usa ese; si no, se calibra al arrancar para acercarse a target-ms
+    private int cost = 0;
+    private long targetMs = 250;
+    private int minCost = 12;
+    private int maxCost = 14;
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(long retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+
+    public int getCost() { return cost; }
+    public void setCost(int cost) { this.cost = cost; }
+
+    public long getTargetMs() { return targetMs; }
+    public void setTargetMs(long targetMs) { this.targetMs = targetMs; }
+
+    public int getMinCost() { return minCost; }
+    public void setMinCost(int minCost) { this.minCost = minCost; }
+
+    public int getMaxCost() { return maxCost; }
+    public void setMaxCost(int maxCost) { this.maxCost = maxCost; }
+}
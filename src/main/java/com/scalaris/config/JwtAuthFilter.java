@@ -1,6 +1,7 @@
 package com.scalaris.auth.security;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.scalaris.auth.domain.User;
 import com.scalaris.auth.repo.UserRepository;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
@@ -19,10 +20,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwt;
     private final UserRepository users;
+    private final AuthCache cache;
 
-    public JwtAuthFilter(JwtService jwt, UserRepository users) {
+    public JwtAuthFilter(JwtService jwt, UserRepository users, AuthCache cache) {
         this.jwt = jwt;
         this.users = users;
+        this.cache = cache;
     }
 
     @Override
@@ -37,31 +40,44 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String token = h.substring("Bearer ".length());
+        AuthCache.VerifiedAccess access;
         try {
-            var decoded = jwt.verify(token);
+            access = cache.verifiedAccess(token, this::verifyAccess);
+        } catch (JWTVerificationException | IllegalArgumentException ex) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
 
-            if (!"ACCESS".equals(decoded.getClaim("type").asString())) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                return;
-            }
+        boolean active = cache.isUserActive(access.userId(),
+                id -> users.findById(id).map(User::isActive).orElse(false));
+        if (!active) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
 
-            UUID userId = UUID.fromString(decoded.getClaim("uid").asString());
-            var userOpt = users.findById(userId);
-            if (userOpt.isEmpty() || !userOpt.get().isActive()) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                return;
-            }
+        var auth = new UsernamePasswordAuthenticationToken(
+                access.userId(), null, List.of(new SimpleGrantedAuthority("ROLE_" + access.role()))
+        );
+        SecurityContextHolder.getContext().setAuthentication(auth);
 
-            String role = decoded.getClaim("role").asString();
-            var auth = new UsernamePasswordAuthenticationToken(
-                    userId, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))
-            );
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        chain.doFilter(request, response);
+    }
 
-            chain.doFilter(request, response);
+    private AuthCache.VerifiedAccess verifyAccess(String token) {
+        var decoded = jwt.verify(token);
 
-        } catch (JWTVerificationException ex) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        if (!"ACCESS".equals(decoded.getClaim("type").asString())) {
+            throw new JWTVerificationException("Token no es ACCESS");
         }
+        if (decoded.getExpiresAtAsInstant() == null) {
+            throw new JWTVerificationException("Token sin expiración");
+        }
+
+        // JwtService firma el id en "uid"; TokenService lo pone en "sub"
+        String uid = decoded.getClaim("uid").asString();
+        UUID userId = UUID.fromString(uid != null ? uid : decoded.getSubject());
+
+        return new AuthCache.VerifiedAccess(userId, decoded.getClaim("role").asString(),
+                decoded.getExpiresAtAsInstant());
     }
 }
@@ -0,0 +1,35 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mail.outbox")
+public class MailOutboxProperties {
+    private boolean enabled = true;            // false = no despacha (los mensajes quedan encolados)
+    private long pollIntervalMs = 5_000;
+    private int batchSize = 20;
+    private long leaseSeconds = 120;           // si la instancia muere con el lote tomado, se reintenta después de esto
+    private int maxAttempts = 8;               // después => FAILED
+    private long initialBackoffSeconds = 30;   // se duplica en cada intento
+    private long maxBackoffSeconds = 3_600;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getPollIntervalMs() { return pollIntervalMs; }
+    public void setPollIntervalMs(long pollIntervalMs) { this.pollIntervalMs = pollIntervalMs; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getLeaseSeconds() { return leaseSeconds; }
+    public void setLeaseSeconds(long leaseSeconds) { this.leaseSeconds = leaseSeconds; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public long getInitialBackoffSeconds() { return initialBackoffSeconds; }
+    public void setInitialBackoffSeconds(long initialBackoffSeconds) { this.initialBackoffSeconds = initialBackoffSeconds; }
+
+    public long getMaxBackoffSeconds() { return maxBackoffSeconds; }
+    public void setMaxBackoffSeconds(long maxBackoffSeconds) { this.maxBackoffSeconds = maxBackoffSeconds; }
+}
@@ -0,0 +1,31 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int ipPerMinute = 60;       // por IP y endpoint
+    private int ipBurst = 20;
+    private int emailPerMinute = 10;    // por email canónico y endpoint
+    private int emailBurst = 5;
+    private int maxKeys = 100_000;      // tope de claves en memoria; las nuevas por encima comparten un bucket
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getIpPerMinute() { return ipPerMinute; }
+    public void setIpPerMinute(int ipPerMinute) { this.ipPerMinute = ipPerMinute; }
+
+    public int getIpBurst() { return ipBurst; }
+    public void setIpBurst(int ipBurst) { this.ipBurst = ipBurst; }
+
+    public int getEmailPerMinute() { return emailPerMinute; }
+    public void setEmailPerMinute(int emailPerMinute) { this.emailPerMinute = emailPerMinute; }
+
+    public int getEmailBurst() { return emailBurst; }
+    public void setEmailBurst(int emailBurst) { this.emailBurst = emailBurst; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+}
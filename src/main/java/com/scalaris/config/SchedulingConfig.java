@@ -0,0 +1,10 @@
+package com.scalaris.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Jobs en background (@Scheduled): despacho de mail_outbox, etc. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
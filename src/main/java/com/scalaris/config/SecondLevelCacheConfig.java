@@ -0,0 +1,79 @@
+package com.scalaris.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cache.internal.NoCachingRegionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arma las regiones del cache L2 desde {@link SecondLevelCacheProperties} y se las pasa a Hibernate.
+ * Es local a cada instancia: con varias réplicas una escritura solo invalida la propia, el resto ve
+ * el valor viejo hasta el TTL de la región (las ediciones igual quedan protegidas por @Version).
+ * Métricas (hibernate-micrometer): {@code hibernate.second.level.cache.requests{result=hit|miss, region}},
+ * {@code hibernate.second.level.cache.puts}.
+ *
+ * <p>Con {@code persistence.l2-cache.enabled=false} se apaga explícitamente (L2, query cache y
+ * shared-cache-mode): que no dependa de los defaults de Hibernate ni de otro jcache en el classpath.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "persistence.l2-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class Enabled {
+
+        @Bean(destroyMethod = "close")
+        public CacheManager hibernateCacheManager(SecondLevelCacheProperties props) {
+            var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            var manager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+            props.getRegions().forEach((name, region) -> {
+                var cfg = new CaffeineConfiguration<Object, Object>();
+                cfg.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+                cfg.setExpireAfterWriteNanos(OptionalLong.of(TimeUnit.SECONDS.toNanos(region.getTtlSeconds())));
+                manager.createCache(name, cfg);
+            });
+            return manager;
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+            return hibernate -> {
+                hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+                hibernate.put(AvailableSettings.USE_QUERY_CACHE, false); // solo entidades/colecciones por id
+                hibernate.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+                hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernate.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                hibernate.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+                // estadísticas para las métricas de hit/miss por región
+                hibernate.put(AvailableSettings.GENERATE_STATISTICS, true);
+            };
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "persistence.l2-cache", name = "enabled", havingValue = "false")
+    static class Disabled {
+
+        @Bean
+        public HibernatePropertiesCustomizer secondLevelCacheOff() {
+            return hibernate -> {
+                hibernate.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernate.put(AvailableSettings.USE_QUERY_CACHE, false);
+                hibernate.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.NONE);
+                hibernate.put(AvailableSettings.CACHE_REGION_FACTORY, NoCachingRegionFactory.class.getName());
+            };
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de segundo nivel de Hibernate (Caffeine vía JCache, en proceso).
+ * Cada región de {@code @Cache(region = ...)} tiene que figurar en {@code regions}: una región sin
+ * configurar hace fallar el arranque en vez de crearse con defaults sin tope.
+ */
+@ConfigurationProperties(prefix = "persistence.l2-cache")
+public class SecondLevelCacheProperties {
+    private boolean enabled = true;
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Map<String, Region> getRegions() { return regions; }
+    public void setRegions(Map<String, Region> regions) { this.regions = regions; }
+
+    public static class Region {
+        private long maxEntries = 10_000;
+        private long ttlSeconds = 300;   // tope de desactualización frente a escrituras de otras instancias
+
+        public long getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(long maxEntries) { this.maxEntries = maxEntries; }
+
+        public long getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+    }
+}
@@ -1,6 +1,13 @@
 package com.scalaris.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalaris.auth.security.AuthRateLimitFilter;
+import com.scalaris.auth.security.BcryptCost;
 import com.scalaris.auth.security.JwtAuthFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.*;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.*;
@@ -9,16 +16,27 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.*;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.*;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 public class SecurityBeansConfig {
 
+    /**
+     * Hashes nuevos: "{bcrypt}$2a$<costo>$..." (algoritmo y costo quedan en cada hash).
+     * Los hashes viejos sin prefijo se validan como BCrypt y se re-hashean en el próximo login
+     * (ver {@code AuthService}), igual que los de costo menor al actual.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(HashingProperties hashing) {
+        var encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(BcryptCost.choose(hashing))));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
@@ -27,7 +45,14 @@ public class SecurityBeansConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthFilter jwtFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtAuthFilter jwtFilter,
+                                                   RateLimitProperties rateLimit,
+                                                   ObjectMapper mapper,
+                                                   MeterRegistry registry) throws Exception {
+        // instancia propia (no bean) para que corra solo dentro de esta cadena
+        var rateLimitFilter = new AuthRateLimitFilter(rateLimit, mapper, registry);
+
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -37,9 +62,12 @@ public class SecurityBeansConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // actuator escucha solo en loopback (management.server.*)
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthFilter.class)
                 .build();
     }
 }
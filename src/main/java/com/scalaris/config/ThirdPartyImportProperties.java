@@ -0,0 +1,15 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "parties.import")
+public class ThirdPartyImportProperties {
+    private int chunkSize = 500;    // filas por transacción
+    private int maxRows = 100_000;  // tope por archivo
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getMaxRows() { return maxRows; }
+    public void setMaxRows(int maxRows) { this.maxRows = maxRows; }
+}
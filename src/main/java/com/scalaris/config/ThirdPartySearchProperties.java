@@ -0,0 +1,17 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "parties.search")
+public class ThirdPartySearchProperties {
+
+    public enum Engine {
+        TRIGRAM, // columna search_text + índice GIN pg_trgm, resultados rankeados
+        LEGACY   // JPQL original con lower(...) like (sin índice)
+    }
+
+    private Engine engine = Engine.TRIGRAM;
+
+    public Engine getEngine() { return engine; }
+    public void setEngine(Engine engine) { this.engine = engine; }
+}
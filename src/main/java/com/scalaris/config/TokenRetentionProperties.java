@@ -0,0 +1,27 @@
+package com.scalaris.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.token-retention")
+public class TokenRetentionProperties {
+    private boolean enabled = true;
+    private String cron = "0 17 3 * * *";   // todos los días 03:17
+    private long graceHours = 24;           // se borra lo vencido hace más que esto
+    private int batchSize = 1_000;          // filas por DELETE (una transacción cada uno)
+    private int maxBatchesPerRun = 500;     // tope por corrida; lo que quede sigue en la próxima
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+
+    public long getGraceHours() { return graceHours; }
+    public void setGraceHours(long graceHours) { this.graceHours = graceHours; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxBatchesPerRun() { return maxBatchesPerRun; }
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) { this.maxBatchesPerRun = maxBatchesPerRun; }
+}
@@ -3,6 +3,7 @@ package com.scalaris.config.bootstrap;
 import com.scalaris.auth.domain.User;
 import com.scalaris.auth.domain.UserRole;
 import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.shared.text.Emails;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.env.Environment;
@@ -31,8 +32,8 @@ public class SuperAdminBootstrap implements ApplicationRunner {
         // Criterio: si no existe ningún SUPERADMIN, lo creo.
         if (users.existsByRole(UserRole.ADMIN)) return;
 
-        String normalizedEmail = email.trim().toLowerCase();
-        if (users.existsByEmail(normalizedEmail)) return; // evita colisión
+        String normalizedEmail = Emails.canonical(email);
+        if (normalizedEmail == null || users.existsByCanonicalEmail(normalizedEmail)) return; // evita colisión
 
         User u = new User(
                 "Super Admin",
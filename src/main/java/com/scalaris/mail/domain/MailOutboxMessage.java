@@ -0,0 +1,98 @@
+package com.scalaris.mail.domain;
+
+import com.scalaris.shared.ids.UuidV7;
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutboxMessage {
+
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(nullable = false, length = 254)
+    private String recipient;
+
+    @Column(nullable = false, length = 200)
+    private String subject;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private OffsetDateTime sentAt;
+
+    protected MailOutboxMessage() {}
+
+    public MailOutboxMessage(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    @PrePersist
+    void onCreate() {
+        var now = OffsetDateTime.now();
+        this.createdAt = now;
+        if (this.nextAttemptAt == null) this.nextAttemptAt = now;
+    }
+
+    public UUID getId() { return id; }
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getBody() { return body; }
+    public MailOutboxStatus getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public OffsetDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public OffsetDateTime getSentAt() { return sentAt; }
+
+    /** Tomado por un dispatcher: nadie más lo ve como vencido hasta {@code leaseUntil}. */
+    public void claim(OffsetDateTime leaseUntil) {
+        this.attempts++;
+        this.nextAttemptAt = leaseUntil;
+    }
+
+    public void markSent() {
+        this.status = MailOutboxStatus.SENT;
+        this.sentAt = OffsetDateTime.now();
+        this.body = null; // puede tener códigos de un solo uso
+        this.lastError = null;
+    }
+
+    public void retryAt(OffsetDateTime when, String error) {
+        this.nextAttemptAt = when;
+        this.lastError = truncate(error);
+    }
+
+    public void markFailed(String error) {
+        this.status = MailOutboxStatus.FAILED;
+        this.body = null;
+        this.lastError = truncate(error);
+    }
+
+    private static String truncate(String s) {
+        if (s == null) return null;
+        return s.length() <= 500 ? s : s.substring(0, 500);
+    }
+}
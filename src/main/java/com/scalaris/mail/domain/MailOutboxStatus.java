@@ -0,0 +1,3 @@
+package com.scalaris.mail.domain;
+
+public enum MailOutboxStatus { PENDING, SENT, FAILED }
@@ -0,0 +1,26 @@
+package com.scalaris.mail.repo;
+
+import com.scalaris.mail.domain.MailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, UUID> {
+
+    /**
+     * Pendientes vencidos, bloqueados para esta transacción. SKIP LOCKED: varias instancias
+     * pueden despachar en paralelo sin pisarse ni esperarse.
+     */
+    @Query(value = """
+            select * from mail_outbox
+            where status = 'PENDING' and next_attempt_at <= :now
+            order by next_attempt_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<MailOutboxMessage> lockDue(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,26 @@
+package com.scalaris.mail.service;
+
+import com.scalaris.mail.domain.MailOutboxMessage;
+import com.scalaris.mail.repo.MailOutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Encola un mail en la transacción del llamador: si esa transacción se revierte, el mail no sale;
+ * si confirma, {@link MailOutboxDispatcher} lo envía después (fuera del request).
+ */
+@Service
+public class MailOutbox {
+
+    private final MailOutboxRepository repo;
+
+    public MailOutbox(MailOutboxRepository repo) {
+        this.repo = repo;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String to, String subject, String body) {
+        repo.save(new MailOutboxMessage(to, subject, body));
+    }
+}
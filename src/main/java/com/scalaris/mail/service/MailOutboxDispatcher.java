@@ -0,0 +1,121 @@
+package com.scalaris.mail.service;
+
+import com.scalaris.auth.service.PasswordResetService;
+import com.scalaris.config.MailOutboxProperties;
+import com.scalaris.mail.repo.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Despacha {@code mail_outbox} en lotes:
+ * <ol>
+ *   <li>tx corta: toma hasta {@code batch-size} vencidos (SKIP LOCKED) y les corre {@code next_attempt_at} como lease;</li>
+ *   <li>sin tx ni conexión: envía cada uno por {@link PasswordResetService.MailSender};</li>
+ *   <li>tx corta: marca enviados, o reprograma con backoff exponencial (+jitter) hasta {@code max-attempts}.</li>
+ * </ol>
+ * Métricas: {@code mail.outbox.sent}, {@code mail.outbox.retried}, {@code mail.outbox.failed}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "mail.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository repo;
+    private final PasswordResetService.MailSender sender;
+    private final TransactionTemplate tx;
+    private final MailOutboxProperties props;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public MailOutboxDispatcher(MailOutboxRepository repo,
+                                PasswordResetService.MailSender sender,
+                                PlatformTransactionManager txManager,
+                                MailOutboxProperties props,
+                                MeterRegistry registry) {
+        this.repo = repo;
+        this.sender = sender;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+        this.sent = registry.counter("mail.outbox.sent");
+        this.retried = registry.counter("mail.outbox.retried");
+        this.failed = registry.counter("mail.outbox.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        var batch = claim();
+        if (batch.isEmpty()) return;
+
+        var errors = new HashMap<UUID, String>();
+        for (var m : batch) {
+            try {
+                sender.send(m.to(), m.subject(), m.body());
+            } catch (RuntimeException ex) {
+                errors.put(m.id(), ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            }
+        }
+
+        record(batch, errors);
+    }
+
+    private List<Claimed> claim() {
+        return tx.execute(status -> {
+            var now = OffsetDateTime.now();
+            var leaseUntil = now.plusSeconds(props.getLeaseSeconds());
+            var claimed = new ArrayList<Claimed>();
+            for (var m : repo.lockDue(now, props.getBatchSize())) {
+                m.claim(leaseUntil);
+                claimed.add(new Claimed(m.getId(), m.getRecipient(), m.getSubject(), m.getBody()));
+            }
+            return claimed;
+        });
+    }
+
+    private void record(List<Claimed> batch, HashMap<UUID, String> errors) {
+        tx.executeWithoutResult(status -> {
+            for (var m : repo.findAllById(batch.stream().map(Claimed::id).toList())) {
+                String error = errors.get(m.getId());
+                if (error == null) {
+                    m.markSent();
+                    sent.increment();
+                } else if (m.getAttempts() >= props.getMaxAttempts()) {
+                    m.markFailed(error);
+                    failed.increment();
+                    log.warn("Mail {} a {} descartado tras {} intentos: {}", m.getId(), m.getRecipient(), m.getAttempts(), error);
+                } else {
+                    m.retryAt(OffsetDateTime.now().plus(backoff(m.getAttempts())), error);
+                    retried.increment();
+                    log.info("Mail {} falló (intento {}), se reintenta: {}", m.getId(), m.getAttempts(), error);
+                }
+            }
+        });
+    }
+
+    /** initial * 2^(intento-1), tope max, con ±20% de jitter para no reintentar todos juntos. */
+    private Duration backoff(int attempt) {
+        long base = props.getInitialBackoffSeconds() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, props.getMaxBackoffSeconds());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * 1000 * jitter));
+    }
+
+    private record Claimed(UUID id, String to, String subject, String body) {}
+}
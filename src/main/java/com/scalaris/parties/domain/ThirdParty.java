@@ -2,8 +2,11 @@ package com.scalaris.parties.domain;
 
 import com.scalaris.auth.domain.CompanyStructure;
 import com.scalaris.auth.domain.TaxPosition;
+import com.scalaris.shared.ids.UuidV7;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -12,6 +15,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "third-party")
 @Table(name = "third_party",
         indexes = {
                 @Index(name = "ix_tp_kind", columnList = "kind"),
@@ -19,7 +24,7 @@ import java.util.UUID;
         })
 public class ThirdParty {
 
-    @Id @GeneratedValue @UuidGenerator
+    @Id @UuidV7
     private UUID id;
 
     @Enumerated(EnumType.STRING)
@@ -95,10 +100,32 @@ public class ThirdParty {
     @Column(nullable = false)
     private boolean active = true;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Columna generada en DB (V2): nombre/razón social/email/documento en minúsculas y sin acentos.
+    // Solo se usa para filtrar en búsquedas (índice trigram).
+    @Column(name = "search_text", columnDefinition = "text", insertable = false, updatable = false)
+    private String searchText;
+
+    // Los asigna el trigger de V13 en cada INSERT/UPDATE (xid de la transacción + secuencia). Solo para
+    // el feed de cambios (consultas JPQL): el valor en memoria no se refresca después de escribir.
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private long changeXid;
+
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private long changeSeq;
+
+    // BatchSize: si alguien recorre colecciones de varias fichas, se inicializan de a lotes (no N+1)
     @OneToMany(mappedBy = "thirdParty", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "third-party-addresses")
     private List<ThirdPartyAddress> addresses = new ArrayList<>();
 
     @OneToMany(mappedBy = "thirdParty", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "third-party-tax-ids")
     private List<ThirdPartyTaxId> taxIds = new ArrayList<>();
 
     @Column(name = "created_at", nullable = false)
@@ -124,7 +151,13 @@ public class ThirdParty {
 
     public UUID getId() { return id; }
     public boolean isActive() { return active; }
+    public long getVersion() { return version; }
     public void deactivate() { this.active = false; }
+    /**
+     * Fuerza el UPDATE de la fila (updated_at y version) aunque solo hayan cambiado direcciones/taxIds:
+     * las colecciones son mappedBy y sus cambios no incrementan la versión por sí solos.
+     */
+    public void touch() { this.updatedAt = OffsetDateTime.now(); }
 
     // setters mínimos para service (sin “magia”)
     public void setKind(ThirdPartyKind kind) { this.kind = kind; }
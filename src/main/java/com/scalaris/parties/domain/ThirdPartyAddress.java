@@ -1,17 +1,21 @@
 package com.scalaris.parties.domain;
 
+import com.scalaris.shared.ids.UuidV7;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "third-party-address")
 @Table(name = "third_party_address",
         indexes = @Index(name = "ix_tpa_party", columnList = "third_party_id"))
 public class ThirdPartyAddress {
 
-    @Id @GeneratedValue @UuidGenerator
+    @Id @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
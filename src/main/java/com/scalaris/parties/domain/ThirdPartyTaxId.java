@@ -1,18 +1,22 @@
 package com.scalaris.parties.domain;
 
+import com.scalaris.shared.ids.UuidV7;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "third-party-tax-id")
 @Table(name = "third_party_tax_id",
         indexes = @Index(name = "ix_tpt_party", columnList = "third_party_id"),
         uniqueConstraints = @UniqueConstraint(name = "uk_tpt_type_value", columnNames = {"tax_id_type", "value"}))
 public class ThirdPartyTaxId {
 
-    @Id @GeneratedValue @UuidGenerator
+    @Id @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,21 @@
+package com.scalaris.parties.repo;
+
+import com.scalaris.parties.domain.ThirdPartyKind;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Fila del feed de cambios: estado actual de la ficha + su posición ({@code changeXid, changeSeq}) en el feed. */
+public record ThirdPartyChangeRow(
+        long changeXid,
+        long changeSeq,
+        UUID id,
+        long version,
+        OffsetDateTime updatedAt,
+        ThirdPartyKind kind,
+        String displayName,
+        String email,
+        String phone,
+        String documentNumber,
+        boolean active
+) {}
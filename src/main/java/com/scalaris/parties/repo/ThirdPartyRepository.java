@@ -2,17 +2,84 @@ package com.scalaris.parties.repo;
 
 import com.scalaris.parties.domain.ThirdParty;
 import com.scalaris.parties.domain.ThirdPartyKind;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import java.util.*;
+import java.util.stream.Stream;
 
+/**
+ * Los listados (grilla, página, stream) y el feed de cambios proyectan directo a records de este paquete
+ * ({@link ThirdPartySummaryView}, {@link ThirdPartyChangeRow}): no hidratan entidades, no quedan en el
+ * contexto de persistencia ni generan snapshots de dirty-checking. El service los pasa a los DTOs de la API.
+ */
 public interface ThirdPartyRepository extends JpaRepository<ThirdParty, UUID> {
 
     Optional<ThirdParty> findByIdAndActiveTrue(UUID id);
 
+    /** Solo la versión, para responder If-None-Match sin cargar el agregado. */
+    @Query("select t.version from ThirdParty t where t.id = :id and t.active = true")
+    Optional<Long> findVersion(@Param("id") UUID id);
+
+    /**
+     * Horizonte de cambios (V13): toda transacción con xid menor ya terminó, así que las filas con
+     * change_xid por debajo no cambian de conjunto. Un cambio todavía no confirmado siempre queda arriba.
+     */
+    @Query(value = "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+    long changeHorizon();
+
+    /**
+     * Versión de la colección, en una sola sentencia (mismo snapshot): el último cambio por debajo del
+     * horizonte más un digest de los change_seq visibles por encima. Cualquier alta, edición o baja
+     * confirmada mueve una de las dos partes; una transacción sin confirmar no se ve.
+     */
+    @Query(value = """
+        with h as (select pg_snapshot_xmin(pg_current_snapshot())::text::bigint as xmin)
+        select coalesce((select to_hex(t.change_xid) || '.' || to_hex(t.change_seq)
+                         from third_party t, h
+                         where t.change_xid < h.xmin
+                         order by t.change_xid desc, t.change_seq desc
+                         limit 1), '0')
+               || coalesce((select '-' || left(md5(string_agg(t.change_seq::text, ',' order by t.change_seq)), 16)
+                            from third_party t, h
+                            where t.change_xid >= h.xmin
+                            having count(*) > 0), '')
+        """, nativeQuery = true)
+    String collectionVersion();
+
+    // -----------------------------
+    // Feed de cambios: keyset sobre (change_xid, change_seq) (V13), activos e inactivos, solo por debajo
+    // del horizonte. Primera página con :afterXid = :afterSeq = 0. Usa uk_tp_change_xid_seq.
+    // -----------------------------
     @Query("""
-        select t from ThirdParty t
+        select new com.scalaris.parties.repo.ThirdPartyChangeRow(
+                   t.changeXid, t.changeSeq, t.id, t.version, t.updatedAt, t.kind, t.displayName, t.email,
+                   t.phone, t.documentNumber, t.active)
+        from ThirdParty t
+        where (t.changeXid, t.changeSeq) > (:afterXid, :afterSeq)
+          and t.changeXid < :horizon
+        order by t.changeXid asc, t.changeSeq asc
+        """)
+    List<ThirdPartyChangeRow> findChangesAfter(@Param("afterXid") long afterXid,
+                                               @Param("afterSeq") long afterSeq,
+                                               @Param("horizon") long horizon,
+                                               Pageable limit);
+
+    // Agregado completo para detalle/edición: addresses y taxIds son dos bags y no se pueden
+    // fetch-joinear juntas (MultipleBagFetchException), así que van en dos consultas sobre la misma instancia.
+    @EntityGraph(attributePaths = "addresses")
+    Optional<ThirdParty> findWithAddressesByIdAndActiveTrue(UUID id);
+
+    @EntityGraph(attributePaths = "taxIds")
+    Optional<ThirdParty> findWithTaxIdsByIdAndActiveTrue(UUID id);
+
+    @Query("""
+        select new com.scalaris.parties.repo.ThirdPartySummaryView(
+                   t.id, t.kind, t.displayName, t.email, t.phone, t.documentNumber, t.active)
+        from ThirdParty t
         where t.active = true
           and (:kind is null or t.kind = :kind)
           and (
@@ -22,28 +89,117 @@ public interface ThirdPartyRepository extends JpaRepository<ThirdParty, UUID> {
               or lower(coalesce(t.email, '')) like lower(concat('%', :q, '%'))
               or lower(coalesce(t.documentNumber, '')) like lower(concat('%', :q, '%'))
           )
-        order by t.displayName asc
+        order by t.displayName asc, t.id asc
         """)
-    List<ThirdParty> searchActive(@Param("kind") ThirdPartyKind kind, @Param("q") String q);
+    List<ThirdPartySummaryView> searchActive(@Param("kind") ThirdPartyKind kind,
+                                                  @Param("q") String q,
+                                                  Pageable limit);
 
+    // Keyset sobre (displayName, id): el "after" sale del cursor de la página anterior.
+    // Primera página = searchActive con límite; las siguientes comparan con row-value para que el
+    // planner haga un range scan sobre ix_tp_active_name_id (V11) en vez de evaluar un OR por fila.
     @Query("""
-        select count(t) > 0 from ThirdParty t
+        select new com.scalaris.parties.repo.ThirdPartySummaryView(
+                   t.id, t.kind, t.displayName, t.email, t.phone, t.documentNumber, t.active)
+        from ThirdParty t
         where t.active = true
-          and t.email is not null
-          and lower(t.email) = lower(:email)
-          and (:excludeId is null or t.id <> :excludeId)
+          and (:kind is null or t.kind = :kind)
+          and (
+              :q is null
+              or lower(t.displayName) like lower(concat('%', :q, '%'))
+              or lower(coalesce(t.legalName, '')) like lower(concat('%', :q, '%'))
+              or lower(coalesce(t.email, '')) like lower(concat('%', :q, '%'))
+              or lower(coalesce(t.documentNumber, '')) like lower(concat('%', :q, '%'))
+          )
+          and (t.displayName, t.id) > (:afterName, :afterId)
+        order by t.displayName asc, t.id asc
         """)
-    boolean existsActiveEmail(@Param("email") String email, @Param("excludeId") UUID excludeId);
+    List<ThirdPartySummaryView> searchActiveAfter(@Param("kind") ThirdPartyKind kind,
+                                                       @Param("q") String q,
+                                                       @Param("afterName") String afterName,
+                                                       @Param("afterId") UUID afterId,
+                                                       Pageable limit);
 
+    // Cursor JDBC (fetch size) para exportar/streamear sin cargar todo en memoria.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
     @Query("""
-        select count(t) > 0 from ThirdParty t
+        select new com.scalaris.parties.repo.ThirdPartySummaryView(
+                   t.id, t.kind, t.displayName, t.email, t.phone, t.documentNumber, t.active)
+        from ThirdParty t
         where t.active = true
-          and t.documentNumber is not null
-          and lower(t.documentType) = lower(:docType)
-          and lower(t.documentNumber) = lower(:docNumber)
-          and (:excludeId is null or t.id <> :excludeId)
+          and (:kind is null or t.kind = :kind)
+          and (
+              :q is null
+              or lower(t.displayName) like lower(concat('%', :q, '%'))
+              or lower(coalesce(t.legalName, '')) like lower(concat('%', :q, '%'))
+              or lower(coalesce(t.email, '')) like lower(concat('%', :q, '%'))
+              or lower(coalesce(t.documentNumber, '')) like lower(concat('%', :q, '%'))
+          )
+        order by t.displayName asc, t.id asc
+        """)
+    Stream<ThirdPartySummaryView> streamActive(@Param("kind") ThirdPartyKind kind, @Param("q") String q);
+
+    // -----------------------------
+    // Búsqueda indexada (search_text + GIN pg_trgm, ver V2__third_party_search.sql)
+    // :pattern y :q llegan tal cual los tipeó el usuario; se normalizan acá con la misma
+    // f_unaccent(lower(...)) que la columna generada.
+    // -----------------------------
+    @Query(value = """
+        select t.id              as "id",
+               t.kind            as "kind",
+               t.display_name    as "displayName",
+               t.email           as "email",
+               t.phone           as "phone",
+               t.document_number as "documentNumber",
+               t.active          as "active"
+        from third_party t
+        where t.active = true
+          and (cast(:kind as varchar) is null or t.kind = cast(:kind as varchar))
+          and t.search_text like f_unaccent(lower(:pattern))
+        order by word_similarity(f_unaccent(lower(:q)), t.search_text) desc, t.display_name asc, t.id asc
+        """, nativeQuery = true)
+    List<ThirdPartySummaryRow> searchRanked(@Param("kind") String kind,
+                                            @Param("q") String q,
+                                            @Param("pattern") String pattern);
+
+    @Query("""
+        select new com.scalaris.parties.repo.ThirdPartySummaryView(
+                   t.id, t.kind, t.displayName, t.email, t.phone, t.documentNumber, t.active)
+        from ThirdParty t
+        where t.active = true
+          and (:kind is null or t.kind = :kind)
+          and (:pattern is null or t.searchText like cast(function('f_unaccent', lower(:pattern)) as String))
+        order by t.displayName asc, t.id asc
+        """)
+    List<ThirdPartySummaryView> searchIndexed(@Param("kind") ThirdPartyKind kind,
+                                                   @Param("pattern") String pattern,
+                                                   Pageable limit);
+
+    @Query("""
+        select new com.scalaris.parties.repo.ThirdPartySummaryView(
+                   t.id, t.kind, t.displayName, t.email, t.phone, t.documentNumber, t.active)
+        from ThirdParty t
+        where t.active = true
+          and (:kind is null or t.kind = :kind)
+          and (:pattern is null or t.searchText like cast(function('f_unaccent', lower(:pattern)) as String))
+          and (t.displayName, t.id) > (:afterName, :afterId)
+        order by t.displayName asc, t.id asc
+        """)
+    List<ThirdPartySummaryView> searchIndexedAfter(@Param("kind") ThirdPartyKind kind,
+                                                        @Param("pattern") String pattern,
+                                                        @Param("afterName") String afterName,
+                                                        @Param("afterId") UUID afterId,
+                                                        Pageable limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        select new com.scalaris.parties.repo.ThirdPartySummaryView(
+                   t.id, t.kind, t.displayName, t.email, t.phone, t.documentNumber, t.active)
+        from ThirdParty t
+        where t.active = true
+          and (:kind is null or t.kind = :kind)
+          and (:pattern is null or t.searchText like cast(function('f_unaccent', lower(:pattern)) as String))
+        order by t.displayName asc, t.id asc
         """)
-    boolean existsActiveDocument(@Param("docType") String docType,
-                                 @Param("docNumber") String docNumber,
-                                 @Param("excludeId") UUID excludeId);
+    Stream<ThirdPartySummaryView> streamIndexed(@Param("kind") ThirdPartyKind kind, @Param("pattern") String pattern);
 }
@@ -0,0 +1,16 @@
+package com.scalaris.parties.repo;
+
+import java.util.UUID;
+
+/**
+ * Proyección de las consultas nativas de búsqueda (los alias de columna coinciden con los getters).
+ */
+public interface ThirdPartySummaryRow {
+    UUID getId();
+    String getKind();
+    String getDisplayName();
+    String getEmail();
+    String getPhone();
+    String getDocumentNumber();
+    boolean getActive();
+}
@@ -0,0 +1,16 @@
+package com.scalaris.parties.repo;
+
+import com.scalaris.parties.domain.ThirdPartyKind;
+
+import java.util.UUID;
+
+/** Fila de los listados JPQL (grilla, página keyset, stream). */
+public record ThirdPartySummaryView(
+        UUID id,
+        ThirdPartyKind kind,
+        String displayName,
+        String email,
+        String phone,
+        String documentNumber,
+        boolean active
+) {}
@@ -0,0 +1,75 @@
+package com.scalaris.parties.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV mínimo (RFC 4180): separador coma, comillas dobles, "" como comilla escapada
+ * y saltos de línea dentro de campos entre comillas. Lee registro a registro (sin cargar el archivo).
+ */
+final class CsvReader {
+
+    private final Reader in;
+    private int pending = -2; // -2 = nada leído por adelantado
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Próximo registro, o null al final del archivo. */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) return null;
+
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IOException("CSV inválido: comillas sin cerrar");
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') unread(n);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
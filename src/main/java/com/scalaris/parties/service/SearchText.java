@@ -0,0 +1,22 @@
+package com.scalaris.parties.service;
+
+/**
+ * Patrón LIKE para la búsqueda sobre third_party.search_text.
+ *
+ * <p>La normalización (minúsculas + sin acentos) no se hace acá sino en SQL, con la misma
+ * {@code f_unaccent(lower(...))} de la columna generada (V2): así "Łódź", "Ødegård" o "Straße"
+ * se comparan con las mismas reglas de unaccent que el valor guardado.
+ */
+final class SearchText {
+
+    private SearchText() {}
+
+    /** Patrón "contiene" para LIKE, escapando los comodines que pueda tipear el usuario. */
+    static String containsPattern(String q) {
+        String escaped = q
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
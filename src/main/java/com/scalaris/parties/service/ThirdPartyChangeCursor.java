@@ -0,0 +1,35 @@
+package com.scalaris.parties.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco del feed de cambios: (change_xid, change_seq) del último cambio entregado.
+ * Formato interno: base64url("v3|changeXid|changeSeq"); el prefijo distingue cursores viejos
+ * (updated_at|id, o v2 solo con change_seq), que ya no valen.
+ */
+record ThirdPartyChangeCursor(long changeXid, long changeSeq) {
+
+    private static final String PREFIX = "v3|";
+
+    static String encode(long changeXid, long changeSeq) {
+        String raw = PREFIX + changeXid + "|" + changeSeq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ThirdPartyChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) throw new IllegalArgumentException("Cursor inválido");
+            String[] parts = raw.substring(PREFIX.length()).split("\\|", -1);
+            if (parts.length != 2) throw new IllegalArgumentException("Cursor inválido");
+            long xid = Long.parseLong(parts[0]);
+            long seq = Long.parseLong(parts[1]);
+            if (xid < 0 || seq < 0) throw new IllegalArgumentException("Cursor inválido");
+            return new ThirdPartyChangeCursor(xid, seq);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.scalaris.parties.service;
+
+import com.scalaris.shared.errors.ConflictException;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Traduce violaciones de índices únicos de third_party* a {@link ConflictException}
+ * (ya sea como DataIntegrityViolationException de Spring o PersistenceException cruda del EntityManager).
+ * La unicidad la garantiza la DB (ver V3__third_party_uniqueness.sql); acá solo se elige el mensaje.
+ */
+final class ThirdPartyConstraints {
+
+    private static final Map<String, String> MESSAGES = Map.of(
+            "uk_tp_email_not_null", "Email ya registrado en clientes/proveedores",
+            "uk_tp_document_not_null", "Documento ya registrado en clientes/proveedores",
+            "uk_tpt_type_value", "TaxId ya registrado en otro cliente/proveedor"
+    );
+
+    private ThirdPartyConstraints() {}
+
+    /** Devuelve el 409 correspondiente, o la excepción original si no es una unicidad conocida. */
+    static RuntimeException translate(RuntimeException ex) {
+        String name = constraintName(ex);
+        String msg = name == null ? null : MESSAGES.get(name.toLowerCase(Locale.ROOT));
+        return msg == null ? ex : new ConflictException(msg);
+    }
+
+    private static String constraintName(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve) return cve.getConstraintName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.scalaris.parties.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco para paginación keyset sobre (display_name, id).
+ * Formato interno: base64url("id|displayName"). El id va primero porque tiene largo fijo
+ * y el nombre puede contener cualquier caracter.
+ */
+record ThirdPartyCursor(String displayName, UUID id) {
+
+    static String encode(String displayName, UUID id) {
+        String raw = id + "|" + displayName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ThirdPartyCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Cursor inválido");
+            return new ThirdPartyCursor(raw.substring(sep + 1), UUID.fromString(raw.substring(0, sep)));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.scalaris.parties.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalaris.auth.domain.CompanyStructure;
+import com.scalaris.auth.domain.TaxPosition;
+import com.scalaris.config.ThirdPartyImportProperties;
+import com.scalaris.parties.domain.*;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse.RowResult;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de clientes/proveedores (CSV o NDJSON).
+ *
+ * <p>Las filas se leen de a una, se validan igual que en el alta (Bean Validation + reglas de
+ * {@link ThirdPartyService#prepareNew}) y se escriben en transacciones de {@code parties.import.chunk-size}
+ * filas con batching JDBC. Si un lote falla por unicidad se reintenta fila por fila para reportar
+ * exactamente cuáles chocan.
+ *
+ * <p>Encabezado CSV (case-insensitive, columnas opcionales salvo las obligatorias del alta):
+ * {@code kind, personType, displayName, legalName, email, phone, documentType, documentNumber, birthDate,
+ * maritalStatus, childrenCount, housesCount, hasPartner, companyName, officeName, employeesCount,
+ * stylePreference, taxPosition, companyStructure, notes, taxIdType, taxIdValue, addressType, addressLine1,
+ * addressLine2, addressCity, addressState, addressZip, addressCountry}. El taxId y la dirección de una fila
+ * CSV se cargan como primarios. En NDJSON cada línea es un {@link ThirdPartyCreateRequest}.
+ */
+@Service
+public class ThirdPartyImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThirdPartyImportService.class);
+
+    private final ThirdPartyService parties;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+    private final ThirdPartyImportProperties props;
+
+    public ThirdPartyImportService(ThirdPartyService parties,
+                                   EntityManager em,
+                                   PlatformTransactionManager txManager,
+                                   Validator validator,
+                                   ObjectMapper mapper,
+                                   ThirdPartyImportProperties props) {
+        this.parties = parties;
+        this.em = em;
+        this.tx = new TransactionTemplate(txManager);
+        this.validator = validator;
+        this.mapper = mapper;
+        this.props = props;
+    }
+
+    public ThirdPartyImportResponse importCsv(InputStream body) throws IOException {
+        var csv = new CsvReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        var header = csv.next();
+        if (header == null) throw new IllegalArgumentException("CSV vacío");
+
+        var columns = new HashMap<String, Integer>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim(); // BOM de Excel
+            columns.put(name.toLowerCase(Locale.ROOT), i);
+        }
+
+        return run(new RowSource() {
+            int row;
+
+            @Override
+            public ParsedRow next() throws IOException {
+                List<String> rec;
+                do {
+                    rec = csv.next();
+                    if (rec == null) return null;
+                } while (rec.stream().allMatch(String::isBlank));
+
+                row++;
+                try {
+                    return new ParsedRow(row, fromCsv(new CsvRow(columns, rec)), null);
+                } catch (IllegalArgumentException | DateTimeException ex) {
+                    return new ParsedRow(row, null, ex.getMessage());
+                }
+            }
+        });
+    }
+
+    public ThirdPartyImportResponse importNdjson(InputStream body) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        return run(new RowSource() {
+            int line;
+
+            @Override
+            public ParsedRow next() throws IOException {
+                String s;
+                do {
+                    s = reader.readLine();
+                    if (s == null) return null;
+                    line++;
+                } while (s.isBlank());
+
+                try {
+                    var req = mapper.readValue(s, ThirdPartyCreateRequest.class);
+                    return req == null
+                            ? new ParsedRow(line, null, "Fila vacía")
+                            : new ParsedRow(line, req, null);
+                } catch (JsonProcessingException ex) {
+                    return new ParsedRow(line, null, "JSON inválido o malformado");
+                }
+            }
+        });
+    }
+
+    // -----------------------------
+    // Pipeline
+    // -----------------------------
+    private ThirdPartyImportResponse run(RowSource source) throws IOException {
+        var results = new ArrayList<RowResult>();
+        var chunk = new ArrayList<ParsedRow>(props.getChunkSize());
+        int read = 0;
+
+        ParsedRow r;
+        while ((r = source.next()) != null) {
+            if (++read > props.getMaxRows()) {
+                results.add(failed(r.row(), "Se alcanzó el máximo de " + props.getMaxRows()
+                        + " filas por importación; el resto no se procesó"));
+                break;
+            }
+
+            String invalid = r.error() != null ? r.error() : validate(r.request());
+            if (invalid != null) {
+                results.add(failed(r.row(), invalid));
+                continue;
+            }
+
+            chunk.add(r);
+            if (chunk.size() >= props.getChunkSize()) {
+                writeChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) writeChunk(chunk, results);
+
+        results.sort(Comparator.comparingInt(RowResult::row));
+        int created = (int) results.stream().filter(x -> x.status() == Status.CREATED).count();
+        return new ThirdPartyImportResponse(results.size(), created, results.size() - created, results);
+    }
+
+    private void writeChunk(List<ParsedRow> chunk, List<RowResult> results) {
+        var outcome = new ArrayList<RowResult>(chunk.size());
+        try {
+            tx.executeWithoutResult(status -> {
+                for (var r : chunk) {
+                    ThirdParty tp;
+                    try {
+                        tp = parties.prepareNew(r.request());
+                    } catch (IllegalArgumentException ex) {
+                        outcome.add(failed(r.row(), ex.getMessage()));
+                        continue;
+                    }
+                    em.persist(tp);
+                    outcome.add(new RowResult(r.row(), Status.CREATED, tp.getId(), null));
+                }
+                em.flush();
+                em.clear();
+            });
+            results.addAll(outcome);
+        } catch (RuntimeException ex) {
+            // el lote entero se revirtió (típicamente unicidad): se reintenta fila por fila para aislar las que fallan
+            for (var r : chunk) results.add(writeOne(r));
+        }
+    }
+
+    private RowResult writeOne(ParsedRow r) {
+        try {
+            UUID id = tx.execute(status -> {
+                var tp = parties.prepareNew(r.request());
+                em.persist(tp);
+                em.flush();
+                em.clear();
+                return tp.getId();
+            });
+            return new RowResult(r.row(), Status.CREATED, id, null);
+        } catch (IllegalArgumentException ex) {
+            return failed(r.row(), ex.getMessage());
+        } catch (RuntimeException ex) {
+            var translated = ThirdPartyConstraints.translate(ex);
+            if (translated != ex) return failed(r.row(), translated.getMessage());
+
+            log.warn("Importación de terceros: fila {} falló", r.row(), ex);
+            return failed(r.row(), "Error inesperado");
+        }
+    }
+
+    private String validate(ThirdPartyCreateRequest req) {
+        var violations = validator.validate(req);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static RowResult failed(int row, String message) {
+        return new RowResult(row, Status.FAILED, null, message);
+    }
+
+    // -----------------------------
+    // CSV -> request
+    // -----------------------------
+    private static ThirdPartyCreateRequest fromCsv(CsvRow c) {
+        List<ThirdPartyCreateRequest.TaxIdDto> taxIds = null;
+        if (c.str("taxIdType") != null || c.str("taxIdValue") != null) {
+            taxIds = List.of(new ThirdPartyCreateRequest.TaxIdDto(
+                    c.enumOf("taxIdType", TaxIdType.class), c.str("taxIdValue"), true));
+        }
+
+        List<ThirdPartyCreateRequest.AddressDto> addresses = null;
+        if (c.str("addressType") != null || c.str("addressLine1") != null) {
+            addresses = List.of(new ThirdPartyCreateRequest.AddressDto(
+                    c.enumOf("addressType", AddressType.class),
+                    c.str("addressLine1"),
+                    c.str("addressLine2"),
+                    c.str("addressCity"),
+                    c.str("addressState"),
+                    c.str("addressZip"),
+                    c.str("addressCountry"),
+                    true));
+        }
+
+        return new ThirdPartyCreateRequest(
+                c.enumOf("kind", ThirdPartyKind.class),
+                c.enumOf("personType", PersonType.class),
+                c.str("displayName"),
+                c.str("legalName"),
+                c.str("email"),
+                c.str("phone"),
+                c.str("documentType"),
+                c.str("documentNumber"),
+                c.date("birthDate"),
+                c.enumOf("maritalStatus", MaritalStatus.class),
+                c.integer("childrenCount"),
+                c.integer("housesCount"),
+                c.bool("hasPartner"),
+                c.str("companyName"),
+                c.str("officeName"),
+                c.integer("employeesCount"),
+                c.enumOf("stylePreference", StylePreference.class),
+                c.enumOf("taxPosition", TaxPosition.class),
+                c.enumOf("companyStructure", CompanyStructure.class),
+                c.str("notes"),
+                taxIds,
+                addresses
+        );
+    }
+
+    private record CsvRow(Map<String, Integer> columns, List<String> values) {
+
+        String str(String name) {
+            Integer i = columns.get(name.toLowerCase(Locale.ROOT));
+            if (i == null || i >= values.size()) return null;
+            String v = values.get(i).trim();
+            return v.isEmpty() ? null : v;
+        }
+
+        <E extends Enum<E>> E enumOf(String name, Class<E> type) {
+            String v = str(name);
+            if (v == null) return null;
+            try {
+                return Enum.valueOf(type, v.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Valor inválido para " + name + ": " + v);
+            }
+        }
+
+        Integer integer(String name) {
+            String v = str(name);
+            if (v == null) return null;
+            try {
+                return Integer.valueOf(v);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Número inválido para " + name + ": " + v);
+            }
+        }
+
+        LocalDate date(String name) {
+            String v = str(name);
+            if (v == null) return null;
+            try {
+                return LocalDate.parse(v);
+            } catch (DateTimeException ex) {
+                throw new IllegalArgumentException("Fecha inválida para " + name + " (formato yyyy-MM-dd): " + v);
+            }
+        }
+
+        Boolean bool(String name) {
+            String v = str(name);
+            if (v == null) return null;
+            return switch (v.toLowerCase(Locale.ROOT)) {
+                case "true", "si", "sí", "1" -> true;
+                case "false", "no", "0" -> false;
+                default -> throw new IllegalArgumentException("Valor inválido para " + name + ": " + v);
+            };
+        }
+    }
+
+    private interface RowSource {
+        /** Próxima fila, o null al terminar. */
+        ParsedRow next() throws IOException;
+    }
+
+    private record ParsedRow(int row, ThirdPartyCreateRequest request, String error) {}
+}
@@ -1,26 +1,53 @@
 package com.scalaris.parties.service;
 
+import com.scalaris.config.ThirdPartyChangesProperties;
+import com.scalaris.config.ThirdPartySearchProperties;
 import com.scalaris.parties.domain.*;
+import com.scalaris.parties.repo.ThirdPartyChangeRow;
 import com.scalaris.parties.repo.ThirdPartyRepository;
+import com.scalaris.parties.repo.ThirdPartySummaryRow;
+import com.scalaris.parties.repo.ThirdPartySummaryView;
 import com.scalaris.parties.web.dto.*;
 import com.scalaris.shared.errors.ConflictException;
 import com.scalaris.shared.errors.NotFoundException;
+import org.hibernate.Hibernate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class ThirdPartyService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final ThirdPartyRepository repo;
+    private final ThirdPartySearchProperties search;
+    private final ThirdPartyChangesProperties changes;
 
-    public ThirdPartyService(ThirdPartyRepository repo) {
+    public ThirdPartyService(ThirdPartyRepository repo,
+                             ThirdPartySearchProperties search,
+                             ThirdPartyChangesProperties changes) {
         this.repo = repo;
+        this.search = search;
+        this.changes = changes;
     }
 
     @Transactional
     public ThirdParty create(ThirdPartyCreateRequest req) {
+        return saveChecked(prepareNew(req));
+    }
+
+    /**
+     * Arma una ficha nueva (sin persistir) aplicando las mismas reglas que el alta individual.
+     * Lo reusa la importación masiva.
+     */
+    ThirdParty prepareNew(ThirdPartyCreateRequest req) {
         var tp = new ThirdParty();
 
         applyCore(tp, req.kind(), req.personType(), req.displayName(), req.legalName(), req.email(), req.phone(),
@@ -30,20 +57,24 @@ public class ThirdPartyService {
                 req.stylePreference(), req.taxPosition(), req.companyStructure(), req.notes()
         );
 
-        enforceUniqueness(tp, null);
-
         syncTaxIds(tp, req.taxIds());
         syncAddresses(tp, req.addresses());
 
         enforcePrimaryRules(tp);
 
-        return repo.save(tp);
+        return tp;
     }
 
+    /**
+     * {@code expectedVersion} (del If-Match) null = sin precondición. Si no coincide con la versión
+     * actual, 409; si otro request confirma entre la carga y el flush, @Version también termina en 409.
+     */
     @Transactional
-    public ThirdParty update(UUID id, ThirdPartyUpdateRequest req) {
-        var tp = repo.findByIdAndActiveTrue(id)
-                .orElseThrow(() -> new NotFoundException("Tercero inexistente"));
+    public ThirdParty update(UUID id, ThirdPartyUpdateRequest req, Long expectedVersion) {
+        var tp = loadAggregate(id);
+        if (expectedVersion != null && expectedVersion != tp.getVersion()) {
+            throw new ConflictException("La ficha fue modificada por otro usuario. Recárgala e intenta nuevamente");
+        }
 
         applyCore(tp, req.kind(), req.personType(), req.displayName(), req.legalName(), req.email(), req.phone(),
                 req.documentType(), req.documentNumber(), req.birthDate(), req.maritalStatus(),
@@ -52,26 +83,117 @@ public class ThirdPartyService {
                 req.stylePreference(), req.taxPosition(), req.companyStructure(), req.notes()
         );
 
-        enforceUniqueness(tp, id);
-
         syncTaxIds(tp, req.taxIds());
         syncAddresses(tp, req.addresses());
 
         enforcePrimaryRules(tp);
+        tp.touch(); // la versión (ETag) tiene que moverse también si solo cambiaron hijos
 
-        return repo.save(tp);
+        return saveChecked(tp);
     }
 
     @Transactional(readOnly = true)
     public ThirdParty get(UUID id) {
-        return repo.findByIdAndActiveTrue(id)
-                .orElseThrow(() -> new NotFoundException("Tercero inexistente"));
+        return loadCached(id);
+    }
+
+    /** Versión de una ficha activa (consulta de una columna, sin hijos). */
+    @Transactional(readOnly = true)
+    public Optional<Long> currentVersion(UUID id) {
+        return repo.findVersion(id);
+    }
+
+    /** Versión del listado: cambia con cualquier alta, edición o baja confirmada. */
+    @Transactional(readOnly = true)
+    public String collectionVersion() {
+        return repo.collectionVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ThirdPartySummaryResponse> list(ThirdPartyKind kind, String q) {
+        String qq = normalizeQuery(q);
+        if (qq == null || !indexedSearch()) return toSummaries(repo.searchActive(kind, qq, Pageable.unpaged()));
+
+        // con texto: más parecidos primero (word_similarity), desempate por nombre
+        return repo.searchRanked(kind == null ? null : kind.name(),
+                        qq, SearchText.containsPattern(qq))
+                .stream()
+                .map(ThirdPartyService::toSummary)
+                .toList();
+    }
+
+    /**
+     * Página keyset ordenada por (displayName, id). {@code cursor} es el {@code nextCursor}
+     * de la página anterior (null para la primera).
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage page(ThirdPartyKind kind, String q, Integer limit, String cursor) {
+        int size = clampLimit(limit);
+        var after = ThirdPartyCursor.decode(cursor);
+
+        String qq = normalizeQuery(q);
+        String pattern = qq == null ? null : SearchText.containsPattern(qq);
+
+        // pedimos uno de más para saber si hay página siguiente sin hacer count
+        var limitPlusOne = PageRequest.of(0, size + 1);
+        List<ThirdPartySummaryView> rows;
+        if (indexedSearch()) {
+            rows = after == null
+                    ? repo.searchIndexed(kind, pattern, limitPlusOne)
+                    : repo.searchIndexedAfter(kind, pattern, after.displayName(), after.id(), limitPlusOne);
+        } else {
+            rows = after == null
+                    ? repo.searchActive(kind, qq, limitPlusOne)
+                    : repo.searchActiveAfter(kind, qq, after.displayName(), after.id(), limitPlusOne);
+        }
+
+        if (rows.size() <= size) return new KeysetPage(toSummaries(rows), null);
+
+        var items = rows.subList(0, size);
+        var last = items.get(size - 1);
+        return new KeysetPage(toSummaries(items), ThirdPartyCursor.encode(last.displayName(), last.id()));
+    }
+
+    /**
+     * Recorre los activos fila a fila desde un cursor JDBC. Las filas son proyecciones (no entidades),
+     * así que nada queda retenido en el contexto de persistencia y la memoria no crece con la tabla.
+     */
+    @Transactional(readOnly = true)
+    public void stream(ThirdPartyKind kind, String q, Consumer<ThirdPartySummaryResponse> sink) {
+        String qq = normalizeQuery(q);
+        var source = indexedSearch()
+                ? repo.streamIndexed(kind, qq == null ? null : SearchText.containsPattern(qq))
+                : repo.streamActive(kind, qq);
+        try (var rows = source) {
+            rows.map(ThirdPartyService::toSummary).forEach(sink);
+        }
     }
 
+    /**
+     * Feed de cambios para sincronización incremental: altas, ediciones y bajas posteriores a {@code cursor}
+     * (null = desde el principio), en orden de (change_xid, change_seq). Cada ficha aparece una vez, con su
+     * estado actual y en la posición de su último cambio. Solo se entrega hasta el horizonte de V13: lo que
+     * confirme después siempre queda por encima, así que una transacción lenta nunca confirma "detrás" de un
+     * cursor ya entregado. Mientras esté abierta, el feed no avanza más allá de ella.
+     */
     @Transactional(readOnly = true)
-    public List<ThirdParty> list(ThirdPartyKind kind, String q) {
-        String qq = (q == null || q.isBlank()) ? null : q.trim();
-        return repo.searchActive(kind, qq);
+    public ChangesPage changes(String cursor, Integer limit) {
+        int size = clampLimit(limit, changes.getDefaultLimit(), changes.getMaxLimit());
+        var after = ThirdPartyChangeCursor.decode(cursor);
+
+        long horizon = repo.changeHorizon();
+        var rows = after == null
+                ? repo.findChangesAfter(0, 0, horizon, PageRequest.of(0, size + 1))
+                : repo.findChangesAfter(after.changeXid(), after.changeSeq(), horizon, PageRequest.of(0, size + 1));
+
+        // sin cambios nuevos el cliente se queda con el mismo cursor
+        if (rows.isEmpty()) return new ChangesPage(List.of(), cursor, false);
+
+        boolean hasMore = rows.size() > size;
+        var items = hasMore ? rows.subList(0, size) : rows;
+        var last = items.get(items.size() - 1);
+        return new ChangesPage(items.stream().map(ThirdPartyService::toChange).toList(),
+                ThirdPartyChangeCursor.encode(last.changeXid(), last.changeSeq()), hasMore);
     }
 
     @Transactional
@@ -85,6 +207,34 @@ public class ThirdPartyService {
     // -----------------------------
     // Internals
     // -----------------------------
+
+    /**
+     * Carga la ficha con addresses y taxIds inicializados en 2 consultas fijas.
+     * Con open-in-view=false el controller mapea fuera de la transacción, así que las colecciones
+     * tienen que salir de acá ya cargadas.
+     */
+    private ThirdParty loadAggregate(UUID id) {
+        var tp = repo.findWithAddressesByIdAndActiveTrue(id)
+                .orElseThrow(() -> new NotFoundException("Tercero inexistente"));
+        // misma sesión: inicializa taxIds sobre la instancia ya cargada
+        repo.findWithTaxIdsByIdAndActiveTrue(id);
+        return tp;
+    }
+
+    /**
+     * Lectura para el detalle: por id (no por query), así la ficha, sus colecciones y los hijos salen del
+     * cache L2 si están. Con cache frío son 1 + 2 consultas en vez de 2. Las escrituras usan
+     * {@link #loadAggregate} para partir de la DB y no de una copia que otra instancia ya modificó.
+     */
+    private ThirdParty loadCached(UUID id) {
+        var tp = repo.findById(id)
+                .filter(ThirdParty::isActive)
+                .orElseThrow(() -> new NotFoundException("Tercero inexistente"));
+        Hibernate.initialize(tp.getAddresses());
+        Hibernate.initialize(tp.getTaxIds());
+        return tp;
+    }
+
     private void applyCore(
             ThirdParty tp,
             ThirdPartyKind kind,
@@ -130,16 +280,15 @@ public class ThirdPartyService {
         tp.setNotes(trimOrNull(notes));
     }
 
-    private void enforceUniqueness(ThirdParty tp, UUID excludeId) {
-        if (tpEmail(tp) != null) {
-            if (repo.existsActiveEmail(tpEmail(tp), excludeId)) {
-                throw new ConflictException("Email ya registrado en clientes/proveedores");
-            }
-        }
-        if (tpDocType(tp) != null && tpDocNumber(tp) != null) {
-            if (repo.existsActiveDocument(tpDocType(tp), tpDocNumber(tp), excludeId)) {
-                throw new ConflictException("Documento ya registrado en clientes/proveedores");
-            }
+    /**
+     * Email/documento/taxId únicos los valida la DB (índices parciales uk_tp_*, uk_tpt_type_value):
+     * flush acá mismo para que la violación salga dentro del service y se traduzca a 409.
+     */
+    private ThirdParty saveChecked(ThirdParty tp) {
+        try {
+            return repo.saveAndFlush(tp);
+        } catch (DataIntegrityViolationException ex) {
+            throw ThirdPartyConstraints.translate(ex);
         }
     }
 
@@ -195,6 +344,39 @@ public class ThirdPartyService {
         if (taxPrimary > 1) throw new IllegalArgumentException("Solo un TaxId puede ser primario");
     }
 
+    private boolean indexedSearch() {
+        return search.getEngine() == ThirdPartySearchProperties.Engine.TRIGRAM;
+    }
+    private static ThirdPartySummaryResponse toSummary(ThirdPartySummaryRow r) {
+        return new ThirdPartySummaryResponse(r.getId(), ThirdPartyKind.valueOf(r.getKind()), r.getDisplayName(),
+                r.getEmail(), r.getPhone(), r.getDocumentNumber(), r.getActive());
+    }
+    private static ThirdPartySummaryResponse toSummary(ThirdPartySummaryView v) {
+        return new ThirdPartySummaryResponse(v.id(), v.kind(), v.displayName(),
+                v.email(), v.phone(), v.documentNumber(), v.active());
+    }
+    private static List<ThirdPartySummaryResponse> toSummaries(List<ThirdPartySummaryView> rows) {
+        return rows.stream().map(ThirdPartyService::toSummary).toList();
+    }
+    private static ThirdPartyChangeResponse toChange(ThirdPartyChangeRow r) {
+        var type = !r.active() ? ThirdPartyChangeResponse.ChangeType.DEACTIVATED
+                : r.version() == 0 ? ThirdPartyChangeResponse.ChangeType.CREATED
+                : ThirdPartyChangeResponse.ChangeType.UPDATED;
+        return new ThirdPartyChangeResponse(type, r.id(), r.version(), r.updatedAt(), r.kind(),
+                r.displayName(), r.email(), r.phone(), r.documentNumber(), r.active());
+    }
+    private static int clampLimit(Integer limit) {
+        return clampLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+    }
+    // null = default; menor a 1 es un request inválido (400); por encima del máximo se recorta
+    private static int clampLimit(Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) return defaultLimit;
+        if (limit < 1) throw new IllegalArgumentException("limit debe ser mayor a 0");
+        return Math.min(limit, maxLimit);
+    }
+    private static String normalizeQuery(String q) {
+        return (q == null || q.isBlank()) ? null : q.trim();
+    }
     private static String key(TaxIdType type, String value) {
         return type.name() + "|" + normalize(value);
     }
@@ -207,17 +389,7 @@ public class ThirdPartyService {
         return t.isBlank() ? null : t;
     }
 
-    // helpers por si no agregaste getters en ThirdParty aún (recomendado agregarlos)
-    private static String tpEmail(ThirdParty tp) {
-        try { return (String) ThirdParty.class.getMethod("getEmail").invoke(tp); }
-        catch (Exception e) { return null; }
-    }
-    private static String tpDocType(ThirdParty tp) {
-        try { return (String) ThirdParty.class.getMethod("getDocumentType").invoke(tp); }
-        catch (Exception e) { return null; }
-    }
-    private static String tpDocNumber(ThirdParty tp) {
-        try { return (String) ThirdParty.class.getMethod("getDocumentNumber").invoke(tp); }
-        catch (Exception e) { return null; }
-    }
+    public record KeysetPage(List<ThirdPartySummaryResponse> items, String nextCursor) {}
+
+    public record ChangesPage(List<ThirdPartyChangeResponse> items, String nextCursor, boolean hasMore) {}
 }
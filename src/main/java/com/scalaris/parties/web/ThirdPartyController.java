@@ -1,8 +1,10 @@
 package com.scalaris.parties.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.scalaris.api.ApiError;
 import com.scalaris.parties.domain.ThirdParty;
 import com.scalaris.parties.domain.ThirdPartyKind;
+import com.scalaris.parties.service.ThirdPartyImportService;
 import com.scalaris.parties.service.ThirdPartyService;
 import com.scalaris.parties.web.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,7 +15,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,10 +30,18 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class ThirdPartyController {
 
+    private static final int STREAM_FLUSH_EVERY = 200;
+    // el browser puede guardar la respuesta pero tiene que revalidar siempre (If-None-Match)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ThirdPartyService service;
+    private final ThirdPartyImportService importer;
+    private final ObjectMapper mapper;
 
-    public ThirdPartyController(ThirdPartyService service) {
+    public ThirdPartyController(ThirdPartyService service, ThirdPartyImportService importer, ObjectMapper mapper) {
         this.service = service;
+        this.importer = importer;
+        this.mapper = mapper;
     }
 
     @Operation(summary = "Crear cliente/proveedor (CUS-06)")
@@ -41,38 +56,159 @@ public class ThirdPartyController {
     @PostMapping
     public ResponseEntity<ThirdPartyResponse> create(@RequestBody @Valid ThirdPartyCreateRequest req) {
         ThirdParty tp = service.create(req);
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(tp));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ThirdPartyETags.of(tp.getId(), tp.getVersion()))
+                .body(toResponse(tp));
+    }
+
+    @Operation(summary = "Importación masiva (CSV)",
+            description = "Primera línea = encabezado con los nombres de campo del alta. Devuelve un resultado por fila.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Procesado (ver resultado por fila)",
+                    content = @Content(schema = @Schema(implementation = ThirdPartyImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Archivo inválido",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ThirdPartyImportResponse> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(importer.importCsv(body));
+    }
+
+    @Operation(summary = "Importación masiva (NDJSON)",
+            description = "Un ThirdPartyCreateRequest JSON por línea. Devuelve un resultado por fila.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Procesado (ver resultado por fila)",
+                    content = @Content(schema = @Schema(implementation = ThirdPartyImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Archivo inválido",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ThirdPartyImportResponse> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(importer.importNdjson(body));
     }
 
     @Operation(summary = "Listar clientes/proveedores (para grilla)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = ThirdPartySummaryResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Request inválido",
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @GetMapping
     public ResponseEntity<List<ThirdPartySummaryResponse>> list(
+            @RequestParam(required = false) ThirdPartyKind kind,
+            @RequestParam(required = false) String q,
+            WebRequest request
+    ) {
+        // la versión se lee antes que los datos: si algo cambia entre medio, el próximo GET no matchea
+        String etag = ThirdPartyETags.collection(service.collectionVersion());
+        if (request.checkNotModified(etag)) return null;
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(service.list(kind, q));
+    }
+
+    @Operation(summary = "Listar clientes/proveedores paginado (keyset)",
+            description = "Orden por displayName + id. Para la página siguiente mandar `cursor` = `nextCursor`.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ThirdPartyPageResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Request inválido / cursor inválido",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping("/page")
+    public ResponseEntity<ThirdPartyPageResponse> page(
+            @RequestParam(required = false) ThirdPartyKind kind,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        String etag = ThirdPartyETags.collection(service.collectionVersion());
+        if (request.checkNotModified(etag)) return null;
+
+        var page = service.page(kind, q, limit, cursor);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(new ThirdPartyPageResponse(page.items(), page.nextCursor()));
+    }
+
+    @Operation(summary = "Cambios desde un cursor (sincronización incremental)",
+            description = "Altas, ediciones y bajas (DEACTIVATED) con el estado actual de cada ficha. Primera vez "
+                    + "sin `cursor` (trae todo, inactivos incluidos); después mandar siempre el último `nextCursor`. "
+                    + "Con `hasMore` = true pedir de nuevo enseguida. Mientras haya una transacción de escritura "
+                    + "abierta el feed no pasa de ella: puede atrasarse, pero no saltea cambios.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ThirdPartyChangesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido / limit menor a 1",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<ThirdPartyChangesResponse> changes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        var page = service.changes(cursor, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                .body(new ThirdPartyChangesResponse(page.items(), page.nextCursor(), page.hasMore()));
+    }
+
+    @Operation(summary = "Listar clientes/proveedores en streaming",
+            description = "Mismo contenido que el listado, escrito como array JSON a medida que se leen las filas.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ThirdPartySummaryResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Request inválido",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(
             @RequestParam(required = false) ThirdPartyKind kind,
             @RequestParam(required = false) String q
     ) {
-        var list = service.list(kind, q).stream().map(this::toSummary).toList();
-        return ResponseEntity.ok(list);
+        StreamingResponseBody body = out -> {
+            try (var gen = mapper.getFactory().createGenerator(out)) {
+                gen.writeStartArray();
+                int[] written = {0};
+                service.stream(kind, q, t -> {
+                    try {
+                        gen.writeObject(t);
+                        if (++written[0] % STREAM_FLUSH_EVERY == 0) gen.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                gen.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @Operation(summary = "Ver detalle (CUS-09)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(schema = @Schema(implementation = ThirdPartyResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado en If-None-Match"),
             @ApiResponse(responseCode = "404", description = "No existe",
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ThirdPartyResponse> get(@PathVariable UUID id) {
-        return ResponseEntity.ok(toResponse(service.get(id)));
+    public ResponseEntity<ThirdPartyResponse> get(@PathVariable UUID id, WebRequest request) {
+        // If-None-Match: se contesta con una consulta de una columna, sin cargar direcciones ni taxIds
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            var version = service.currentVersion(id);
+            if (version.isPresent() && request.checkNotModified(ThirdPartyETags.of(id, version.get()))) {
+                return null;
+            }
+        }
+
+        var tp = service.get(id);
+        return ResponseEntity.ok().eTag(ThirdPartyETags.of(tp.getId(), tp.getVersion())).cacheControl(REVALIDATE)
+                .body(toResponse(tp));
     }
 
-    @Operation(summary = "Editar ficha (CUS-07)")
+    @Operation(summary = "Editar ficha (CUS-07)",
+            description = "Con If-Match = ETag del GET, rechaza con 409 si otro usuario la modificó mientras tanto.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Actualizado",
                     content = @Content(schema = @Schema(implementation = ThirdPartyResponse.class))),
@@ -80,13 +216,17 @@ public class ThirdPartyController {
                     content = @Content(schema = @Schema(implementation = ApiError.class))),
             @ApiResponse(responseCode = "404", description = "No existe",
                     content = @Content(schema = @Schema(implementation = ApiError.class))),
-            @ApiResponse(responseCode = "409", description = "Conflicto",
+            @ApiResponse(responseCode = "409", description = "Conflicto (duplicado o edición concurrente)",
+                    content = @Content(schema = @Schema(implementation = ApiError.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match con ETag débil (W/)",
                     content = @Content(schema = @Schema(implementation = ApiError.class)))
     })
     @PutMapping("/{id}")
     public ResponseEntity<ThirdPartyResponse> update(@PathVariable UUID id,
-                                                     @RequestBody @Valid ThirdPartyUpdateRequest req) {
-        return ResponseEntity.ok(toResponse(service.update(id, req)));
+                                                     @RequestBody @Valid ThirdPartyUpdateRequest req,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var tp = service.update(id, req, ThirdPartyETags.expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(ThirdPartyETags.of(tp.getId(), tp.getVersion())).body(toResponse(tp));
     }
 
     @Operation(summary = "Eliminar ficha (CUS-08)", description = "Soft delete (active=false).")
@@ -104,18 +244,6 @@ public class ThirdPartyController {
     // -----------------------
     // mapping (simple y directo)
     // -----------------------
-    private ThirdPartySummaryResponse toSummary(ThirdParty t) {
-        return new ThirdPartySummaryResponse(
-                t.getId(),
-                t.getKind(),
-                t.getDisplayName(),
-                t.getEmail(),
-                t.getPhone(),
-                t.getDocumentNumber(),
-                t.isActive()
-        );
-    }
-
     private ThirdPartyResponse toResponse(ThirdParty t) {
         var taxIds = t.getTaxIds().stream()
                 .map(x -> new ThirdPartyResponse.TaxIdDto(x.getTaxIdType(), x.getValue(), x.isPrimary()))
@@ -0,0 +1,41 @@
+package com.scalaris.parties.web;
+
+import com.scalaris.shared.errors.PreconditionFailedException;
+
+import java.util.UUID;
+
+/**
+ * ETags fuertes de terceros.
+ * Ficha: id + version (@Version, la incrementa cada UPDATE). Listados: la versión de la colección
+ * ({@code ThirdPartyRepository.collectionVersion}, V13), que cambia con cualquier alta, edición o baja confirmada.
+ */
+final class ThirdPartyETags {
+
+    private ThirdPartyETags() {}
+
+    static String of(UUID id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    static String collection(String version) {
+        return "\"c-" + version + "\"";
+    }
+
+    /**
+     * Versión esperada según If-Match. null si no vino o es "*". Un ETag débil (W/) no sirve para
+     * If-Match, que compara en forma fuerte: 412. Un ETag de otra ficha o mal formado es un request inválido (400).
+     */
+    static Long expectedVersion(UUID id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+
+        String v = ifMatch.trim();
+        if (v.startsWith("W/")) throw new PreconditionFailedException("If-Match requiere un ETag fuerte");
+        String prefix = "\"" + id + "-";
+        if (!v.startsWith(prefix) || !v.endsWith("\"")) throw new IllegalArgumentException("If-Match inválido");
+        try {
+            return Long.parseLong(v.substring(prefix.length(), v.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match inválido");
+        }
+    }
+}
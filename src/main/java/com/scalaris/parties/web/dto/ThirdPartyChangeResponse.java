@@ -0,0 +1,24 @@
+package com.scalaris.parties.web.dto;
+
+import com.scalaris.parties.domain.ThirdPartyKind;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Schema(name = "ThirdPartyChangeResponse", description = "Estado actual de una ficha que cambió desde el cursor")
+public record ThirdPartyChangeResponse(
+        @Schema(description = "CREATED y UPDATED se aplican igual (upsert); DEACTIVATED = baja")
+        ChangeType type,
+        UUID id,
+        long version,
+        OffsetDateTime updatedAt,
+        ThirdPartyKind kind,
+        String displayName,
+        String email,
+        String phone,
+        String documentNumber,
+        boolean active
+) {
+    public enum ChangeType { CREATED, UPDATED, DEACTIVATED }
+}
@@ -0,0 +1,14 @@
+package com.scalaris.parties.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "ThirdPartyChangesResponse", description = "Página del feed de cambios de clientes/proveedores")
+public record ThirdPartyChangesResponse(
+        List<ThirdPartyChangeResponse> items,
+        @Schema(description = "Cursor para la próxima llamada; guardarlo aunque no haya items. Null solo si nunca hubo cambios")
+        String nextCursor,
+        @Schema(description = "true si ya hay más cambios disponibles (pedir de nuevo sin esperar)")
+        boolean hasMore
+) {}
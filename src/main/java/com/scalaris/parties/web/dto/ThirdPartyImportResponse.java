@@ -0,0 +1,24 @@
+package com.scalaris.parties.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(name = "ThirdPartyImportResponse", description = "Resultado de importación masiva (una entrada por fila)")
+public record ThirdPartyImportResponse(
+        @Schema(example = "3") int total,
+        @Schema(example = "2") int created,
+        @Schema(example = "1") int failed,
+        List<RowResult> rows
+) {
+    public enum Status { CREATED, FAILED }
+
+    public record RowResult(
+            @Schema(description = "Número de fila de datos (1 = primera fila después del encabezado / primera línea NDJSON)",
+                    example = "1") int row,
+            Status status,
+            UUID id,
+            @Schema(example = "Email ya registrado en clientes/proveedores") String message
+    ) {}
+}
@@ -0,0 +1,13 @@
+package com.scalaris.parties.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "ThirdPartyPageResponse", description = "Página keyset de clientes/proveedores")
+public record ThirdPartyPageResponse(
+        List<ThirdPartySummaryResponse> items,
+        @Schema(description = "Cursor opaco para pedir la página siguiente; null si no hay más",
+                example = "YjNiMWMyYzAtOWM3YS00YTNjLTlmMTQtOWQyZjVlNWI1YTAxfEp1YW4gUMOpcmV6")
+        String nextCursor
+) {}
@@ -0,0 +1,6 @@
+package com.scalaris.shared.errors;
+
+/** Precondición HTTP (If-Match) que no se puede evaluar o no se cumple: se responde 412. */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) { super(message); }
+}
@@ -0,0 +1,15 @@
+package com.scalaris.shared.errors;
+
+import java.time.Duration;
+
+/** Sobrecarga momentánea: se responde 503 con Retry-After. */
+public class ServiceUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() { return retryAfter; }
+}
@@ -0,0 +1,21 @@
+package com.scalaris.shared.ids;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Id UUID versión 7 (RFC 9562): prefijo de timestamp en ms, así los inserts van al final del
+ * índice de la PK en vez de repartirse por todo el B-tree como con UUIDv4.
+ * Reemplaza a {@code @GeneratedValue @UuidGenerator}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7 {
+}
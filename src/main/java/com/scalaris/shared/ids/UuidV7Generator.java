@@ -0,0 +1,63 @@
+package com.scalaris.shared.ids;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Generador de UUIDv7 para {@link UuidV7}.
+ *
+ * <p>Layout: 48 bits de epoch-millis | versión (7) | 12 bits de secuencia | variante | 62 bits aleatorios.
+ * Los 12 bits "rand_a" se usan como contador dentro del mismo milisegundo (RFC 9562, método 1), así los ids
+ * generados por este proceso son estrictamente crecientes aunque se pidan miles por ms. Sin locks: un CAS
+ * sobre (millis, secuencia) empaquetados en un long.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong(); // (millis << 12) | secuencia
+
+    public UuidV7Generator(UuidV7 config, Member member, CustomIdGeneratorCreationContext context) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        long stamp = nextStamp();
+        long millis = stamp >>> 12;
+        long seq = stamp & 0xFFF;
+
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static long nextStamp() {
+        while (true) {
+            long prev = LAST.get();
+            long now = System.currentTimeMillis() << 12;
+            // mismo ms (o reloj que retrocede): seguimos contando desde el último; si la secuencia
+            // se desborda, el "+1" avanza al ms siguiente y el orden se mantiene igual.
+            long next = now > prev ? now : prev + 1;
+            if (LAST.compareAndSet(prev, next)) return next;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.scalaris.shared.text;
+
+import java.util.Locale;
+
+/** Forma canónica de un email para comparar/buscar: sin espacios alrededor y en minúsculas. */
+public final class Emails {
+
+    private Emails() {}
+
+    public static String canonical(String email) {
+        if (email == null) return null;
+        String e = email.trim().toLowerCase(Locale.ROOT);
+        return e.isEmpty() ? null : e;
+    }
+}
@@ -0,0 +1,9 @@
+-- ============================================================================
+-- V11__third_party_keyset_index.sql  (PostgreSQL)
+-- Paginación keyset de la grilla (GET /third-parties/page): orden (display_name, id)
+-- sobre fichas activas. Con este índice la primera página y cada
+-- "(display_name, id) > (:n, :id)" son un range scan que corta en limit + 1.
+-- ============================================================================
+CREATE INDEX ix_tp_active_name_id
+    ON third_party(display_name, id)
+    WHERE active;
@@ -0,0 +1,57 @@
+-- ============================================================================
+-- V13__third_party_change_seq.sql  (PostgreSQL)
+-- Posición de cada cambio de third_party para el feed de cambios y el ETag de los listados.
+--
+-- updated_at no sirve: now() es el inicio de la transacción, así que una tx larga confirma
+-- con un valor más viejo que otras que ya confirmaron. Una SEQUENCE sola tampoco: nextval no
+-- espera a nadie y los valores se confirman fuera de orden.
+--
+-- Cada INSERT/UPDATE guarda el xid de su transacción (change_xid) y un nextval (change_seq);
+-- ningún escritor espera a otro. Los lectores solo avanzan hasta el horizonte
+-- pg_snapshot_xmin(pg_current_snapshot()): todas las transacciones con xid menor ya terminaron,
+-- así que las filas con change_xid < horizonte ya no cambian de conjunto y las que falten van a
+-- tener un xid mayor. Orden del feed: (change_xid, change_seq).
+-- Costo: mientras haya una transacción de escritura abierta (de cualquier tabla) el feed espera
+-- detrás de ella; se atrasa, pero no saltea nada.
+-- ============================================================================
+CREATE SEQUENCE third_party_change_seq;
+
+ALTER TABLE third_party
+    ADD COLUMN change_xid bigint,
+    ADD COLUMN change_seq bigint;
+
+-- backfill en el orden que ya tenían, todo con xid 1 (por debajo de cualquier horizonte);
+-- sin tocar updated_at
+ALTER TABLE third_party DISABLE TRIGGER trg_third_party_set_updated_at;
+UPDATE third_party t
+SET change_xid = 1,
+    change_seq = o.seq
+FROM (SELECT id, row_number() OVER (ORDER BY updated_at, id) AS seq FROM third_party) o
+WHERE o.id = t.id;
+ALTER TABLE third_party ENABLE TRIGGER trg_third_party_set_updated_at;
+
+SELECT setval('third_party_change_seq', coalesce(max(change_seq), 0) + 1, false) FROM third_party;
+
+ALTER TABLE third_party
+    ALTER COLUMN change_xid SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL;
+
+-- keyset del feed y máximo "asentado" del ETag (backward scan de una entrada)
+CREATE UNIQUE INDEX uk_tp_change_xid_seq ON third_party(change_xid, change_seq);
+
+CREATE OR REPLACE FUNCTION trg_third_party_change_seq()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+  -- xid8 (con época): no da la vuelta
+  NEW.change_xid := pg_current_xact_id()::text::bigint;
+  NEW.change_seq := nextval('third_party_change_seq');
+RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER trg_third_party_change_seq
+    BEFORE INSERT OR UPDATE ON third_party
+    FOR EACH ROW
+    EXECUTE FUNCTION trg_third_party_change_seq();
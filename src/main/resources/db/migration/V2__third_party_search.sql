@@ -0,0 +1,34 @@
+-- ============================================================================
+-- V2__third_party_search.sql  (PostgreSQL)
+-- Búsqueda de terceros (grilla): texto normalizado + índice trigram.
+--
+-- "lower(x) like '%q%'" no puede usar un B-tree; con pg_trgm + GIN sí.
+-- La normalización (minúsculas + sin acentos) vive en una columna generada para
+-- que índice y consulta usen exactamente la misma expresión.
+-- ============================================================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() es STABLE (depende del diccionario); para usarla en una columna
+-- generada/índice hace falta un wrapper IMMUTABLE con el diccionario fijo.
+CREATE OR REPLACE FUNCTION f_unaccent(text)
+RETURNS text
+LANGUAGE sql
+IMMUTABLE PARALLEL SAFE STRICT
+AS $$
+SELECT public.unaccent('public.unaccent'::regdictionary, $1)
+$$;
+
+ALTER TABLE third_party
+    ADD COLUMN search_text text
+        GENERATED ALWAYS AS (
+            f_unaccent(lower(
+                display_name
+                || ' ' || coalesce(legal_name, '')
+                || ' ' || coalesce(email, '')
+                || ' ' || coalesce(document_number, '')
+            ))
+        ) STORED;
+
+CREATE INDEX ix_tp_search_trgm
+    ON third_party USING gin (search_text gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- ============================================================================
+-- V3__third_party_uniqueness.sql  (PostgreSQL)
+-- Unicidad de email/documento de terceros delegada en la DB.
+--
+-- El service dejaba de pre-consultar (count > 0) y traduce la violación a 409.
+-- Para eso los índices tienen que expresar la misma regla que tenía el service:
+--   - solo fichas activas (un soft delete libera el email/documento)
+--   - comparación case-insensitive
+-- ============================================================================
+DROP INDEX IF EXISTS uk_tp_email_not_null;
+
+CREATE UNIQUE INDEX uk_tp_email_not_null
+    ON third_party(lower(email))
+    WHERE email IS NOT NULL AND active;
+
+DROP INDEX IF EXISTS uk_tp_document_not_null;
+
+CREATE UNIQUE INDEX uk_tp_document_not_null
+    ON third_party(lower(document_type), lower(document_number))
+    WHERE document_type IS NOT NULL AND document_number IS NOT NULL AND active;
@@ -0,0 +1,29 @@
+-- ============================================================================
+-- V4__uuid_v7_defaults.sql  (PostgreSQL)
+-- Ids time-ordered (UUIDv7) para el agregado de terceros.
+--
+-- La app ya genera UUIDv7 (@UuidV7); esto alinea el DEFAULT de la DB para
+-- inserts manuales/scripts, así la PK sigue creciendo "al final" del índice.
+-- Las filas existentes conservan su id (v4): no se reescriben PKs/FKs.
+-- ============================================================================
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS uuid
+LANGUAGE plpgsql
+VOLATILE
+AS $$
+DECLARE
+  ts_ms bigint := floor(extract(epoch FROM clock_timestamp()) * 1000);
+  bytes bytea  := gen_random_bytes(16);  -- pgcrypto (V1)
+BEGIN
+  -- 48 bits de timestamp big-endian en los primeros 6 bytes
+  bytes := overlay(bytes PLACING substring(int8send(ts_ms) FROM 3) FROM 1 FOR 6);
+  -- versión 7 y variante RFC 4122
+  bytes := set_byte(bytes, 6, (get_byte(bytes, 6) & 15) | 112);
+  bytes := set_byte(bytes, 8, (get_byte(bytes, 8) & 63) | 128);
+RETURN encode(bytes, 'hex')::uuid;
+END;
+$$;
+
+ALTER TABLE third_party         ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE third_party_address ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE third_party_tax_id  ALTER COLUMN id SET DEFAULT uuid_generate_v7();
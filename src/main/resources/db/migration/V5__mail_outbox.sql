@@ -0,0 +1,27 @@
+-- ============================================================================
+-- V5__mail_outbox.sql  (PostgreSQL)
+-- Outbox de mails salientes (reset de contraseña, etc.).
+--
+-- El service inserta el mensaje en la misma transacción que su dato de negocio;
+-- MailOutboxDispatcher lo toma en lotes (FOR UPDATE SKIP LOCKED), envía fuera
+-- de la transacción y reintenta con backoff exponencial.
+-- next_attempt_at funciona también como lease: al tomar un lote se corre hacia
+-- adelante, así si la instancia se cae el mensaje vuelve a quedar disponible.
+-- ============================================================================
+CREATE TABLE mail_outbox (
+                             id              uuid PRIMARY KEY DEFAULT uuid_generate_v7(),
+                             recipient       varchar(254) NOT NULL,
+                             subject         varchar(200) NOT NULL,
+                             body            text         NULL,      -- se borra al enviar / descartar
+                             status          varchar(20)  NOT NULL DEFAULT 'PENDING',
+                             attempts        int          NOT NULL DEFAULT 0,
+                             next_attempt_at timestamptz  NOT NULL DEFAULT now(),
+                             last_error      varchar(500) NULL,
+                             created_at      timestamptz  NOT NULL DEFAULT now(),
+                             sent_at         timestamptz  NULL,
+
+                             CONSTRAINT ck_mail_outbox_status CHECK (status IN ('PENDING', 'SENT', 'FAILED'))
+);
+
+-- solo lo pendiente: el índice no crece con el histórico de enviados
+CREATE INDEX ix_mail_outbox_due ON mail_outbox(next_attempt_at) WHERE status = 'PENDING';
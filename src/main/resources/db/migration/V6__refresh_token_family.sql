@@ -0,0 +1,14 @@
+-- ============================================================================
+-- V6__refresh_token_family.sql  (PostgreSQL)
+-- Familia de refresh tokens: todos los refresh que salen por rotación desde un
+-- mismo login comparten family_id. Si se presenta uno ya rotado (reuso), se
+-- revoca la familia entera.
+-- Las filas existentes arrancan cada una su propia familia.
+-- ============================================================================
+ALTER TABLE refresh_token ADD COLUMN family_id uuid;
+
+UPDATE refresh_token SET family_id = id WHERE family_id IS NULL;
+
+ALTER TABLE refresh_token ALTER COLUMN family_id SET NOT NULL;
+
+CREATE INDEX ix_refresh_family ON refresh_token(family_id);
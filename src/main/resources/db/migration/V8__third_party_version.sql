@@ -0,0 +1,7 @@
+-- ============================================================================
+-- V8__third_party_version.sql  (PostgreSQL)
+-- Optimistic locking (@Version) para la ficha de terceros: cada UPDATE hace
+-- "... WHERE id = ? AND version = ?" y la incrementa. También es la base del
+-- ETag de GET/PUT /third-parties/{id} (If-None-Match / If-Match).
+-- ============================================================================
+ALTER TABLE third_party ADD COLUMN version bigint NOT NULL DEFAULT 0;
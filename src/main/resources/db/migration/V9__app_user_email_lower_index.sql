@@ -0,0 +1,19 @@
+-- ============================================================================
+-- V9__app_user_email_lower_index.sql  (PostgreSQL)
+-- Búsquedas de usuario por email case-insensitive con índice.
+--
+-- findByEmailIgnoreCase generaba upper(email) = upper(?), que no usa uk_app_user_email
+-- (índice sobre el valor crudo): cada login podía terminar en seq scan de app_user.
+-- Ahora el repo consulta lower(email) = :email (con el email ya canónico) y la unicidad
+-- pasa a un índice único de expresión que sirve para las dos cosas.
+-- ============================================================================
+
+-- la entidad ya guarda el email en minúsculas y sin espacios; esto alinea filas viejas
+-- (si dos filas difieren solo en mayúsculas, falla acá: hay que resolver el duplicado a mano)
+UPDATE app_user
+SET email = lower(btrim(email))
+WHERE email <> lower(btrim(email));
+
+CREATE UNIQUE INDEX uk_app_user_email_lower ON app_user(lower(email));
+
+ALTER TABLE app_user DROP CONSTRAINT uk_app_user_email;
@@ -0,0 +1,66 @@
+package com.scalaris.auth.repo;
+
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.shared.text.Emails;
+import com.scalaris.support.Explain;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@PostgresTest
+class UserEmailIndexTest {
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired UserRepository users;
+
+    @Test
+    void lookupByLowerEmailUsesUniqueIndex() {
+        String plan = Explain.plan(jdbc, txManager,
+                "select id from app_user where lower(email) = ?", "ana@example.com");
+
+        assertThat(plan).contains("uk_app_user_email_lower").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void existsCheckUsesUniqueIndex() {
+        String plan = Explain.plan(jdbc, txManager,
+                "select count(*) > 0 from app_user where lower(email) = ?", "ana@example.com");
+
+        assertThat(plan).contains("uk_app_user_email_lower").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void repositoryLookupsIgnoreCase() {
+        var user = users.save(Fixtures.user(UserRole.EMPLOYEE));
+        // los callers pasan el email por Emails.canonical antes de consultar
+        String typed = " " + user.getEmail().toUpperCase() + " ";
+
+        assertThat(users.findByCanonicalEmail(Emails.canonical(typed))).map(User::getId).contains(user.getId());
+        assertThat(users.existsByCanonicalEmail(Emails.canonical(typed))).isTrue();
+        assertThat(users.existsByCanonicalEmail("nadie-" + UUID.randomUUID() + "@scalaris.test")).isFalse();
+    }
+
+    @Test
+    void sameEmailWithDifferentCaseIsRejectedByIndex() {
+        var user = users.save(Fixtures.user(UserRole.EMPLOYEE));
+
+        // saltea la normalización de la entidad: la garantía tiene que ser del índice
+        assertThatThrownBy(() -> jdbc.update("""
+                insert into app_user(id, full_name, email, password_hash, role, active, accepted_terms, created_at, updated_at)
+                values (?, 'Duplicado', ?, 'x', 'EMPLOYEE', true, true, now(), now())
+                """, UUID.randomUUID(), user.getEmail().toUpperCase()))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("uk_app_user_email_lower");
+    }
+}
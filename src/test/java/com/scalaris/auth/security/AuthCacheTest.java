@@ -0,0 +1,95 @@
+package com.scalaris.auth.security;
+
+import com.scalaris.config.AuthCacheProperties;
+import com.scalaris.config.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthCacheTest {
+
+    private final AuthCache cache = new AuthCache(new AuthCacheProperties(), new JwtProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void loadsUserStatusOnce() {
+        var userId = UUID.randomUUID();
+        var loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.isUserActive(userId, id -> { loads.incrementAndGet(); return true; })).isTrue();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsTheLoadedValue() {
+        var userId = UUID.randomUUID();
+
+        // el usuario se desactiva (y se invalida) mientras otro request todavía leía el estado viejo
+        boolean stale = cache.isUserActive(userId, id -> {
+            cache.invalidateUser(id);
+            return true;
+        });
+        assertThat(stale).isTrue();
+
+        assertThat(cache.isUserActive(userId, id -> false)).isFalse();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        var userId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> cache.isUserActive(userId, id -> { throw new IllegalStateException("db caída"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.isUserActive(userId, id -> true)).isTrue();
+    }
+
+    @Test
+    void invalidateUserReverifiesOnlyThatUsersTokens() {
+        var alice = UUID.randomUUID();
+        var bob = UUID.randomUUID();
+        var verifications = new AtomicInteger();
+
+        cache.verifiedAccess("token-a", t -> access(alice, verifications));
+        cache.verifiedAccess("token-b", t -> access(bob, verifications));
+        cache.verifiedAccess("token-a", t -> access(alice, verifications));
+        assertThat(verifications).hasValue(2);
+
+        cache.invalidateUser(alice);
+
+        cache.verifiedAccess("token-a", t -> access(alice, verifications));
+        cache.verifiedAccess("token-b", t -> access(bob, verifications));
+        assertThat(verifications).hasValue(3);
+
+        // la re-verificación vuelve a quedar cacheada
+        cache.verifiedAccess("token-a", t -> access(alice, verifications));
+        assertThat(verifications).hasValue(3);
+    }
+
+    @Test
+    void invalidationDuringVerificationDiscardsTheVerifiedToken() {
+        var userId = UUID.randomUUID();
+        var verifications = new AtomicInteger();
+
+        cache.verifiedAccess("token", t -> {
+            cache.invalidateUser(userId);
+            return access(userId, verifications);
+        });
+
+        cache.verifiedAccess("token", t -> access(userId, verifications));
+        assertThat(verifications).hasValue(2);
+    }
+
+    private static AuthCache.VerifiedAccess access(UUID userId, AtomicInteger verifications) {
+        verifications.incrementAndGet();
+        return new AuthCache.VerifiedAccess(userId, "ADMIN", Instant.now().plusSeconds(600));
+    }
+}
@@ -0,0 +1,107 @@
+package com.scalaris.auth.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalaris.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimitFilterTest {
+
+    private final AuthRateLimitFilter filter;
+
+    AuthRateLimitFilterTest() {
+        var props = new RateLimitProperties();
+        props.setIpPerMinute(1);
+        props.setIpBurst(100);
+        props.setEmailPerMinute(1);
+        props.setEmailBurst(2);
+        filter = new AuthRateLimitFilter(props, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void limitsByCanonicalEmail() throws Exception {
+        assertThat(login("{\"email\":\"Ana@Example.com\"}").getStatus()).isEqualTo(200);
+        assertThat(login("{\"email\":\" ana@example.COM \"}").getStatus()).isEqualTo(200);
+
+        var third = login("{\"email\":\"ana@example.com\"}");
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader("Retry-After")).isNotNull();
+    }
+
+    @Test
+    void oversizedBodyIsRejectedInsteadOfSkippingEmailBucket() throws Exception {
+        String padded = "{\"email\":\"ana@example.com\",\"x\":\"" + "a".repeat(AuthRateLimitFilter.MAX_BODY_BYTES) + "\"}";
+
+        var chain = new MockFilterChain();
+        assertThat(run(request(padded), chain).getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+
+        // chunked: sin Content-Length, el tope se aplica a lo que efectivamente se lee
+        var chunked = new MockHttpServletRequest("POST", "/api/v1/auth/login") {
+            @Override public long getContentLengthLong() { return -1; }
+            @Override public int getContentLength() { return -1; }
+        };
+        chunked.setServletPath("/api/v1/auth/login");
+        chunked.setContent(padded.getBytes(StandardCharsets.UTF_8));
+        chain = new MockFilterChain();
+        assertThat(run(chunked, chain).getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void downstreamReadsCachedBodyBlockingAndWithReadListener() throws Exception {
+        String body = "{\"email\":\"ana@example.com\",\"password\":\"x\"}";
+
+        var chain = new MockFilterChain();
+        run(request(body), chain);
+        byte[] blocking = chain.getRequest().getInputStream().readAllBytes();
+        assertThat(new String(blocking, StandardCharsets.UTF_8)).isEqualTo(body);
+
+        chain = new MockFilterChain();
+        run(request(body), chain);
+        var in = chain.getRequest().getInputStream();
+        var read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override public void onDataAvailable() throws IOException {
+                events.add("data");
+                while (in.isReady() && !in.isFinished()) read.write(in.read());
+            }
+            @Override public void onAllDataRead() { events.add("done"); }
+            @Override public void onError(Throwable t) { events.add("error"); }
+        });
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    private MockHttpServletResponse login(String body) throws Exception {
+        return run(request(body), new MockFilterChain());
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest req, MockFilterChain chain) throws Exception {
+        var res = new MockHttpServletResponse();
+        filter.doFilter(req, res, chain);
+        return res;
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        var req = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        req.setServletPath("/api/v1/auth/login");
+        req.setContentType("application/json");
+        req.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return req;
+    }
+}
@@ -0,0 +1,75 @@
+package com.scalaris.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 1 token por minuto: durante el test no se repone nada, solo cuenta el burst
+class RateLimiterTest {
+
+    @Test
+    void allowsBurstThenReportsWait() {
+        var limiter = new RateLimiter(1, 3, 100);
+
+        for (int i = 0; i < 3; i++) assertThat(limiter.tryAcquire("a")).isZero();
+
+        long wait = limiter.tryAcquire("a");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(1));
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        var limiter = new RateLimiter(1, 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void keysBeyondMaxShareOverflowBucket() {
+        var limiter = new RateLimiter(1, 2, 1);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.tryAcquire("c")).isZero();
+        assertThat(limiter.tryAcquire("d")).isPositive(); // b, c y d comparten el mismo burst de 2
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedBurst() throws Exception {
+        var limiter = new RateLimiter(1, 100, 100);
+        var allowed = new AtomicInteger();
+        var start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("same") == 0) allowed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(allowed).hasValue(100);
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new RateLimiter(0, 1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(1, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.scalaris.auth.service;
+
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.web.dto.LoginRequest;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Re-hash en el login: UPDATE de una sola columna, condicionado al hash que se validó. */
+@PostgresTest
+class AuthServiceHashUpgradeTest {
+
+    private static final String PASSWORD = "Abcdef12";
+
+    @Autowired AuthService auth;
+    @Autowired UserRepository users;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void loginUpgradesLegacyHash() {
+        var user = legacyUser();
+
+        auth.authenticate(new LoginRequest(user.getEmail(), PASSWORD));
+
+        assertThat(hashOf(user.getId())).startsWith("{bcrypt}");
+        auth.authenticate(new LoginRequest(user.getEmail(), PASSWORD)); // el hash nuevo también valida
+    }
+
+    @Test
+    void upgradeDoesNotOverwriteConcurrentChanges() {
+        var user = legacyUser();
+        String legacy = user.getPasswordHash();
+
+        // otro request edita la fila entre la lectura del login y el re-hash
+        jdbc.update("update app_user set full_name = 'Renombrado', role = 'ADMIN' where id = ?", user.getId());
+
+        assertThat(users.upgradePasswordHash(user.getId(), legacy, "{bcrypt}nuevo")).isEqualTo(1);
+
+        var row = jdbc.queryForMap("select full_name, role, password_hash from app_user where id = ?", user.getId());
+        assertThat(row).containsEntry("full_name", "Renombrado")
+                .containsEntry("role", "ADMIN")
+                .containsEntry("password_hash", "{bcrypt}nuevo");
+    }
+
+    @Test
+    void upgradeIsDiscardedWhenThePasswordChangedMeanwhile() {
+        var user = legacyUser();
+        String legacy = user.getPasswordHash();
+        jdbc.update("update app_user set password_hash = '{bcrypt}cambiada' where id = ?", user.getId());
+
+        assertThat(users.upgradePasswordHash(user.getId(), legacy, "{bcrypt}nuevo")).isZero();
+        assertThat(hashOf(user.getId())).isEqualTo("{bcrypt}cambiada");
+    }
+
+    // hash BCrypt sin prefijo {bcrypt}, como los anteriores al DelegatingPasswordEncoder
+    private User legacyUser() {
+        var user = Fixtures.user(UserRole.EMPLOYEE);
+        user.setPasswordHash(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        return users.save(user);
+    }
+
+    private String hashOf(UUID id) {
+        return jdbc.queryForObject("select password_hash from app_user where id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,73 @@
+package com.scalaris.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsFalseNegatives() {
+        var filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        assertThat(IntStream.range(0, 10_000))
+                .allMatch(i -> filter.mightContain("user" + i + "@example.com"));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        var filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        long fp = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@example.com"))
+                .count();
+
+        // objetivo 1%; margen amplio para no depender de la distribución exacta
+        assertThat(fp / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        var filter = BloomFilter.create(1_000, 0.01);
+
+        assertThat(filter.mightContain("ana@example.com")).isFalse();
+        assertThat(filter.expectedFpp()).isZero();
+    }
+
+    @Test
+    void sizeFollowsOptimalFormula() {
+        // m = -n·ln(p)/ln(2)² ≈ 9.59 bits por elemento con p = 1%
+        var filter = BloomFilter.create(100_000, 0.01);
+
+        assertThat(filter.sizeBytes()).isBetween(119_000L, 121_000L);
+    }
+
+    @Test
+    void concurrentPutsAreAllVisible() throws Exception {
+        var filter = BloomFilter.create(80_000, 0.01);
+        var start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) filter.put(thread + "-" + i);
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(IntStream.range(0, 8)).allMatch(t ->
+                IntStream.range(0, 10_000).allMatch(i -> filter.mightContain(t + "-" + i)));
+    }
+}
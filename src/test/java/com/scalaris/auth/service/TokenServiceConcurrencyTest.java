@@ -0,0 +1,76 @@
+package com.scalaris.auth.service;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refresh concurrente del mismo token contra Postgres real: el UPDATE condicional deja pasar a uno
+ * solo, el resto cuenta como reuso y revoca la familia (incluido el sucesor recién emitido).
+ */
+@PostgresTest
+class TokenServiceConcurrencyTest {
+
+    private static final int CLIENTS = 8;
+
+    @Autowired TokenService tokens;
+    @Autowired UserRepository users;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void concurrentRefreshIssuesOnePairAndRevokesFamily() throws Exception {
+        var user = users.save(Fixtures.user(UserRole.EMPLOYEE));
+        String refresh = tokens.issueTokens(user).refreshToken();
+        UUID family = UUID.fromString(tokens.verify(refresh).getId()); // primer refresh: family_id = jti
+
+        var start = new CountDownLatch(1);
+        List<Future<TokenService.IssuedTokens>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return tokens.refresh(refresh);
+                }));
+            }
+            start.countDown();
+        }
+
+        int issued = 0;
+        int rejected = 0;
+        for (var r : results) {
+            try {
+                assertThat(r.get().refreshToken()).isNotEqualTo(refresh);
+                issued++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(JWTVerificationException.class);
+                rejected++;
+            }
+        }
+        assertThat(issued).isEqualTo(1);
+        assertThat(rejected).isEqualTo(CLIENTS - 1);
+
+        // original + el único sucesor, ambos revocados
+        Integer rows = jdbc.queryForObject(
+                "select count(*) from refresh_token where family_id = ?", Integer.class, family);
+        Integer active = jdbc.queryForObject(
+                "select count(*) from refresh_token where family_id = ? and revoked_at is null", Integer.class, family);
+        assertThat(rows).isEqualTo(2);
+        assertThat(active).isZero();
+    }
+}
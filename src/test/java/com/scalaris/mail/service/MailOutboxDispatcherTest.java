@@ -0,0 +1,241 @@
+package com.scalaris.mail.service;
+
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.service.PasswordResetService;
+import com.scalaris.config.MailOutboxProperties;
+import com.scalaris.mail.domain.MailOutboxMessage;
+import com.scalaris.mail.repo.MailOutboxRepository;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Dispatcher contra Postgres real con un MailSender que graba los envíos (y falla para
+ * destinatarios {@code @falla.test}). El dispatcher programado está apagado en el perfil de test:
+ * cada test arma el suyo y llama a {@code dispatch()} a mano.
+ */
+@PostgresTest
+class MailOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 60;
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SenderConfig {
+        @Bean
+        @Primary
+        RecordingSender recordingSender() {
+            return new RecordingSender();
+        }
+    }
+
+    static final class RecordingSender implements PasswordResetService.MailSender {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(String to, String subject, String body) {
+            if (to.endsWith("@falla.test")) throw new IllegalStateException("smtp caído");
+            sent.add(to);
+        }
+    }
+
+    @Autowired RecordingSender sender;
+    @Autowired MailOutbox outbox;
+    @Autowired MailOutboxRepository repo;
+    @Autowired PasswordResetService resets;
+    @Autowired UserRepository users;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired MeterRegistry registry;
+    @Autowired JdbcTemplate jdbc;
+
+    private MailOutboxDispatcher dispatcher;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from mail_outbox");
+        sender.sent.clear();
+
+        var props = new MailOutboxProperties();
+        props.setMaxAttempts(MAX_ATTEMPTS);
+        props.setInitialBackoffSeconds(INITIAL_BACKOFF_SECONDS);
+        dispatcher = new MailOutboxDispatcher(repo, sender, txManager, props, registry);
+        tx = new TransactionTemplate(txManager);
+    }
+
+    @Test
+    void sentMessageIsMarkedSentAndBodyCleared() {
+        enqueue("ok@demo.test");
+
+        dispatcher.dispatch();
+
+        assertThat(sender.sent).containsExactly("ok@demo.test");
+        var row = row("ok@demo.test");
+        assertThat(row.getStatus().name()).isEqualTo("SENT");
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getBody()).isNull();
+        assertThat(row.getSentAt()).isNotNull();
+        assertThat(row.getLastError()).isNull();
+    }
+
+    @Test
+    void failedSendIsRescheduledWithBackoff() {
+        enqueue("uno@falla.test");
+
+        dispatcher.dispatch();
+
+        var row = row("uno@falla.test");
+        assertThat(row.getStatus().name()).isEqualTo("PENDING");
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getBody()).isNotNull();
+        assertThat(row.getLastError()).isEqualTo("IllegalStateException: smtp caído");
+
+        // primer reintento: initial-backoff ±20% de jitter
+        Double inSeconds = jdbc.queryForObject(
+                "select extract(epoch from next_attempt_at - now())::float8 from mail_outbox where recipient = ?",
+                Double.class, "uno@falla.test");
+        assertThat(inSeconds).isBetween(INITIAL_BACKOFF_SECONDS * 0.8 - 5, INITIAL_BACKOFF_SECONDS * 1.2 + 1);
+
+        // todavía no venció: otra pasada no lo toma
+        dispatcher.dispatch();
+        assertThat(row("uno@falla.test").getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void messageFailsAfterMaxAttempts() {
+        enqueue("siempre@falla.test");
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            dispatcher.dispatch();
+            makeDue();
+        }
+
+        var row = row("siempre@falla.test");
+        assertThat(row.getStatus().name()).isEqualTo("FAILED");
+        assertThat(row.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(row.getBody()).isNull();
+        assertThat(row.getLastError()).contains("smtp caído");
+
+        // FAILED ya no se despacha
+        dispatcher.dispatch();
+        assertThat(row("siempre@falla.test").getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void rolledBackResetRequestLeavesNoOutboxRow() {
+        var user = users.save(Fixtures.user(UserRole.EMPLOYEE));
+
+        tx.executeWithoutResult(status -> {
+            resets.request(user.getEmail());
+            status.setRollbackOnly();
+        });
+
+        assertThat(count("select count(*) from mail_outbox where recipient = ?", user.getEmail())).isZero();
+        assertThat(count("select count(*) from password_reset_token where user_id = ?", user.getId())).isZero();
+
+        // MANDATORY: sin transacción del llamador no se encola nada
+        assertThatThrownBy(() -> outbox.enqueue(user.getEmail(), "Asunto", "Cuerpo"))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(count("select count(*) from mail_outbox where recipient = ?", user.getEmail())).isZero();
+
+        // confirmado, el token y el mail quedan juntos
+        resets.request(user.getEmail());
+        assertThat(count("select count(*) from mail_outbox where recipient = ?", user.getEmail())).isEqualTo(1);
+        assertThat(count("select count(*) from password_reset_token where user_id = ?", user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentClaimsSkipLockedRows() throws Exception {
+        for (int i = 0; i < 10; i++) enqueue("lote-" + i + "@demo.test");
+        var firstLocked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            // la primera transacción toma 6 y no confirma hasta que la segunda terminó
+            var first = pool.submit(() -> tx.execute(s -> {
+                var ids = repo.lockDue(OffsetDateTime.now(), 6).stream().map(MailOutboxMessage::getId).toList();
+                firstLocked.countDown();
+                await(release);
+                return ids;
+            }));
+            assertThat(firstLocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // SKIP LOCKED: no espera a la primera, se lleva solo las 4 libres
+            List<UUID> second = tx.execute(s ->
+                    repo.lockDue(OffsetDateTime.now(), 10).stream().map(MailOutboxMessage::getId).toList());
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(6).doesNotContainAnyElementsOf(second);
+            assertThat(second).hasSize(4);
+        }
+    }
+
+    @Test
+    void concurrentDispatchersSendEachMessageOnce() throws Exception {
+        for (int i = 0; i < 30; i++) enqueue("par-" + i + "@demo.test");
+        var start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            var a = pool.submit(() -> { await(start); dispatcher.dispatch(); });
+            var b = pool.submit(() -> { await(start); dispatcher.dispatch(); });
+            start.countDown();
+            a.get(10, TimeUnit.SECONDS);
+            b.get(10, TimeUnit.SECONDS);
+        }
+        dispatcher.dispatch(); // lo que haya quedado fuera de los dos lotes
+
+        assertThat(sender.sent).hasSize(30).doesNotHaveDuplicates();
+        assertThat(count("select count(*) from mail_outbox where status = 'SENT'")).isEqualTo(30);
+    }
+
+    private void enqueue(String to) {
+        tx.executeWithoutResult(s -> outbox.enqueue(to, "Asunto", "Cuerpo para " + to));
+    }
+
+    private void makeDue() {
+        jdbc.update("update mail_outbox set next_attempt_at = now() - interval '1 second' where status = 'PENDING'");
+    }
+
+    private MailOutboxMessage row(String recipient) {
+        return repo.findAll().stream()
+                .filter(m -> m.getRecipient().equals(recipient))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private int count(String sql, Object... args) {
+        Integer n = jdbc.queryForObject(sql, Integer.class, args);
+        return n == null ? 0 : n;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
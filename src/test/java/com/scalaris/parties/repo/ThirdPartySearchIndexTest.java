@@ -0,0 +1,47 @@
+package com.scalaris.parties.repo;
+
+import com.scalaris.parties.service.ThirdPartyService;
+import com.scalaris.parties.web.dto.ThirdPartySummaryResponse;
+import com.scalaris.support.Explain;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresTest
+class ThirdPartySearchIndexTest {
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired ThirdPartyService service;
+
+    @Test
+    void containsSearchUsesTrigramIndex() {
+        String plan = Explain.plan(jdbc, txManager, """
+                select id from third_party
+                where active and search_text like f_unaccent(lower(?))
+                """, "%peña%");
+
+        assertThat(plan).contains("ix_tp_search_trgm").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void queryIsNormalizedLikeTheStoredColumn() {
+        // ł, ø, ß no se descomponen con NFD: solo coinciden si la consulta pasa por el mismo unaccent
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        var created = service.create(Fixtures.thirdParty("Łukasz Ødegård Straße " + tag, null));
+
+        for (String q : new String[]{"łukasz", "LUKASZ", "ødegård", "odegard", "straße", "strasse"}) {
+            assertThat(service.list(null, q))
+                    .as("búsqueda '%s'", q)
+                    .extracting(ThirdPartySummaryResponse::id)
+                    .contains(created.getId());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.scalaris.parties.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainRecords() throws IOException {
+        assertThat(read("a,b,c\n1,2,3\n")).containsExactly(
+                List.of("a", "b", "c"),
+                List.of("1", "2", "3"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(read(",x,\n")).containsExactly(List.of("", "x", ""));
+    }
+
+    @Test
+    void handlesQuotesEscapedQuotesAndNewlinesInsideFields() throws IOException {
+        assertThat(read("\"Pérez, Juan\",\"dice \"\"hola\"\"\",\"línea 1\nlínea 2\"\n")).containsExactly(
+                List.of("Pérez, Juan", "dice \"hola\"", "línea 1\nlínea 2"));
+    }
+
+    @Test
+    void acceptsCrLfAndMissingFinalNewline() throws IOException {
+        assertThat(read("a,b\r\nc,d")).containsExactly(
+                List.of("a", "b"),
+                List.of("c", "d"));
+    }
+
+    @Test
+    void returnsNullAtEndOfInput() throws IOException {
+        var csv = new CsvReader(new StringReader(""));
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void failsOnUnterminatedQuote() {
+        assertThatThrownBy(() -> read("\"sin cerrar,1\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("comillas sin cerrar");
+    }
+
+    private static List<List<String>> read(String text) throws IOException {
+        var csv = new CsvReader(new StringReader(text));
+        var out = new ArrayList<List<String>>();
+        for (List<String> rec; (rec = csv.next()) != null; ) out.add(rec);
+        return out;
+    }
+}
@@ -0,0 +1,24 @@
+package com.scalaris.parties.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTextTest {
+
+    @Test
+    void wrapsTermAsContains() {
+        assertThat(SearchText.containsPattern("pena")).isEqualTo("%pena%");
+    }
+
+    @Test
+    void escapesLikeWildcards() {
+        assertThat(SearchText.containsPattern("100%_a\\b")).isEqualTo("%100\\%\\_a\\\\b%");
+    }
+
+    @Test
+    void leavesCaseAndAccentsToTheDatabase() {
+        // la normalización la hace f_unaccent(lower(...)) en SQL, igual que la columna generada
+        assertThat(SearchText.containsPattern("Łódź Peña")).isEqualTo("%Łódź Peña%");
+    }
+}
@@ -0,0 +1,50 @@
+package com.scalaris.parties.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThirdPartyChangeCursorTest {
+
+    @Test
+    void roundTripKeepsXidAndSeq() {
+        assertThat(ThirdPartyChangeCursor.decode(ThirdPartyChangeCursor.encode(0, 0)))
+                .isEqualTo(new ThirdPartyChangeCursor(0, 0));
+        assertThat(ThirdPartyChangeCursor.decode(ThirdPartyChangeCursor.encode(Long.MAX_VALUE, 7)))
+                .isEqualTo(new ThirdPartyChangeCursor(Long.MAX_VALUE, 7));
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        assertThat(ThirdPartyChangeCursor.encode(4_294_967_296L, 123_456_789L)).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void missingCursorMeansFromTheStart() {
+        assertThat(ThirdPartyChangeCursor.decode(null)).isNull();
+        assertThat(ThirdPartyChangeCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void rejectsGarbageNegativeAndOldFormats() {
+        // formatos anteriores (updated_at|id, v2|changeSeq): el cliente tiene que volver a empezar sin cursor
+        String old = b64("1718000000000000|" + UUID.randomUUID());
+
+        for (String token : new String[]{"%%%", b64("v3|abc|1"), b64("v3|1|-1"), b64("v3|1"), b64("v3|1|2|3"),
+                b64("42"), b64("v2|42"), old}) {
+            assertThatThrownBy(() -> ThirdPartyChangeCursor.decode(token))
+                    .as(token)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cursor inválido");
+        }
+    }
+
+    private static String b64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,225 @@
+package com.scalaris.parties.service;
+
+import com.scalaris.parties.web.dto.ThirdPartyChangeResponse;
+import com.scalaris.parties.web.dto.ThirdPartyChangeResponse.ChangeType;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse;
+import com.scalaris.support.Explain;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@PostgresTest
+class ThirdPartyChangesTest {
+
+    @Autowired ThirdPartyService service;
+    @Autowired ThirdPartyImportService importer;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void feedPagesInChangeOrderAndReportsLatestState() throws Exception {
+        String start = drain(null);
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        UUID a = service.create(Fixtures.thirdParty("A " + tag, null)).getId();
+        UUID b = service.create(Fixtures.thirdParty("B " + tag, null)).getId();
+        UUID c = service.create(Fixtures.thirdParty("C " + tag, null)).getId();
+
+        var first = awaitChanges(start, 2, 2);
+        assertThat(first.items()).extracting(ThirdPartyChangeResponse::id).containsExactly(a, b);
+        assertThat(first.items()).extracting(ThirdPartyChangeResponse::type).containsOnly(ChangeType.CREATED);
+        assertThat(first.hasMore()).isTrue();
+
+        var second = service.changes(first.nextCursor(), 2);
+        assertThat(second.items()).extracting(ThirdPartyChangeResponse::id).containsExactly(c);
+        assertThat(second.hasMore()).isFalse();
+
+        // una baja posterior aparece después del cursor, con su estado actual
+        service.delete(a);
+        var third = awaitChanges(second.nextCursor(), 2, 1);
+        assertThat(third.items()).singleElement().satisfies(ch -> {
+            assertThat(ch.id()).isEqualTo(a);
+            assertThat(ch.type()).isEqualTo(ChangeType.DEACTIVATED);
+        });
+
+        // sin cambios nuevos el cursor no se mueve
+        var empty = service.changes(third.nextCursor(), 2);
+        assertThat(empty.items()).isEmpty();
+        assertThat(empty.nextCursor()).isEqualTo(third.nextCursor());
+    }
+
+    @Test
+    void slowTransactionHoldsTheFeedBackButIsNotSkipped() throws Exception {
+        String start = drain(null);
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        var inserted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // la tx lenta escribe primero y confirma al final; la rápida ya no la espera y confirma antes
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            var slow = pool.submit(() -> new TransactionTemplate(txManager).execute(s -> {
+                var id = service.create(Fixtures.thirdParty("Lenta " + tag, null)).getId();
+                inserted.countDown();
+                await(release);
+                return id;
+            }));
+            assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+            String beforeFast = service.collectionVersion();
+
+            UUID fast = pool.submit(() -> service.create(Fixtures.thirdParty("Rápida " + tag, null)).getId())
+                    .get(5, TimeUnit.SECONDS);
+
+            // la rápida ya confirmó: el ETag del listado lo ve, pero el feed no pasa a la lenta todavía abierta
+            String afterFast = service.collectionVersion();
+            assertThat(afterFast).isNotEqualTo(beforeFast);
+            assertThat(service.changes(start, 10).items()).isEmpty();
+
+            release.countDown();
+            UUID slowId = slow.get(10, TimeUnit.SECONDS);
+
+            assertThat(service.collectionVersion()).isNotEqualTo(afterFast);
+            var page = awaitChanges(start, 10, 2);
+            assertThat(page.items()).extracting(ThirdPartyChangeResponse::id).containsExactly(slowId, fast);
+        }
+    }
+
+    @Test
+    void openWriterDoesNotBlockOtherWriters() throws Exception {
+        UUID other = service.create(Fixtures.thirdParty("Otra " + UUID.randomUUID(), null)).getId();
+        var inserted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            var open = pool.submit(() -> new TransactionTemplate(txManager).execute(s -> {
+                var id = service.create(Fixtures.thirdParty("Abierta " + UUID.randomUUID(), null)).getId();
+                inserted.countDown();
+                await(release);
+                return id;
+            }));
+            assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // con un contador compartido este UPDATE esperaría el commit de la otra transacción
+            var update = pool.submit(() ->
+                    jdbc.update("update third_party set notes = 'editada' where id = ?", other));
+            assertThat(update.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+
+            release.countDown();
+            open.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void importAlongsideSingleRowUpdatesKeepsTheFeedComplete() throws Exception {
+        String start = drain(null);
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        var existing = new ArrayList<UUID>();
+        for (int i = 0; i < 20; i++) {
+            existing.add(service.create(Fixtures.thirdParty("Existente " + i + " " + tag, null)).getId());
+        }
+
+        int rows = 3_000;
+        var csv = new StringBuilder("kind,personType,displayName\n");
+        for (int i = 0; i < rows; i++) csv.append("CUSTOMER,PERSON,Importada ").append(i).append(' ').append(tag).append('\n');
+
+        ThirdPartyImportResponse imported;
+        var lastNote = new HashMap<UUID, String>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            var importing = pool.submit(() ->
+                    importer.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8))));
+            // ediciones de una fila (autocommit) mientras los lotes de la importación están abiertos
+            var updating = pool.submit(() -> {
+                var notes = new HashMap<UUID, String>();
+                for (int round = 0; round < 20; round++) {
+                    for (UUID id : existing) {
+                        String note = "ronda " + round;
+                        jdbc.update("update third_party set notes = ?, version = version + 1 where id = ?", note, id);
+                        notes.put(id, note);
+                    }
+                }
+                return notes;
+            });
+
+            imported = importing.get(60, TimeUnit.SECONDS);
+            lastNote.putAll(updating.get(60, TimeUnit.SECONDS));
+        }
+        assertThat(imported.created()).isEqualTo(rows);
+        assertThat(lastNote).hasSize(existing.size());
+
+        // el feed entrega cada ficha una sola vez: las 3000 importadas y las 20 editadas
+        var seen = new HashMap<UUID, ThirdPartyChangeResponse>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String cursor = start;
+        while (seen.size() < rows + existing.size() && System.nanoTime() < deadline) {
+            var page = service.changes(cursor, 1_000);
+            for (var ch : page.items()) assertThat(seen.put(ch.id(), ch)).as("repetido %s", ch.id()).isNull();
+            cursor = page.nextCursor();
+            if (!page.hasMore()) Thread.sleep(50);
+        }
+        assertThat(seen).hasSize(rows + existing.size());
+        assertThat(seen.keySet()).containsAll(existing);
+        assertThat(imported.rows()).allSatisfy(r -> assertThat(seen).containsKey(r.id()));
+        assertThat(existing).allSatisfy(id -> assertThat(seen.get(id).type()).isEqualTo(ChangeType.UPDATED));
+    }
+
+    @Test
+    void limitIsValidatedLikeThePagedList() {
+        assertThatThrownBy(() -> service.changes(null, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.changes(null, -5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.page(null, null, 0, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void feedUsesChangeXidSeqIndex() {
+        String plan = Explain.plan(jdbc, txManager, """
+                select id from third_party
+                where (change_xid, change_seq) > (?, ?) and change_xid < ?
+                order by change_xid, change_seq limit 201
+                """, 0L, 0L, Long.MAX_VALUE);
+
+        assertThat(plan).contains("uk_tp_change_xid_seq").doesNotContain("Seq Scan");
+    }
+
+    // avanza hasta el final del feed para que cada test vea solo sus propios cambios
+    private String drain(String cursor) {
+        while (true) {
+            var page = service.changes(cursor, 1_000);
+            cursor = page.nextCursor();
+            if (!page.hasMore()) return cursor;
+        }
+    }
+
+    // el horizonte puede quedar un instante detrás de lo recién confirmado si otra transacción
+    // (autovacuum/analyze, otro test) tiene un xid abierto: se espera a que pase
+    private ThirdPartyService.ChangesPage awaitChanges(String cursor, int limit, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            var page = service.changes(cursor, limit);
+            if (page.items().size() >= expected || System.nanoTime() > deadline) return page;
+            Thread.sleep(20);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
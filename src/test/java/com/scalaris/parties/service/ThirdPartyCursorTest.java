@@ -0,0 +1,50 @@
+package com.scalaris.parties.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThirdPartyCursorTest {
+
+    @Test
+    void roundTripKeepsNameAndId() {
+        var id = UUID.randomUUID();
+        var cursor = ThirdPartyCursor.decode(ThirdPartyCursor.encode("Peña | Núñez S.A.", id));
+
+        assertThat(cursor.displayName()).isEqualTo("Peña | Núñez S.A.");
+        assertThat(cursor.id()).isEqualTo(id);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = ThirdPartyCursor.encode("???>>>", UUID.randomUUID());
+
+        assertThat(token).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void blankOrNullMeansFirstPage() {
+        assertThat(ThirdPartyCursor.decode(null)).isNull();
+        assertThat(ThirdPartyCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThatThrownBy(() -> ThirdPartyCursor.decode("no es base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor inválido");
+
+        String noSeparator = Base64.getUrlEncoder().encodeToString("sin-separador".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> ThirdPartyCursor.decode(noSeparator))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        String badId = Base64.getUrlEncoder().encodeToString("no-uuid|Juan".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> ThirdPartyCursor.decode(badId))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
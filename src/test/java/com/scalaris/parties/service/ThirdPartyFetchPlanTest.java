@@ -0,0 +1,91 @@
+package com.scalaris.parties.service;
+
+import com.scalaris.parties.domain.AddressType;
+import com.scalaris.parties.domain.TaxIdType;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest.AddressDto;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest.TaxIdDto;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import com.scalaris.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** El agregado y los listados se cargan con una cantidad fija de sentencias, sin importar cuántos hijos haya. */
+@PostgresTest
+class ThirdPartyFetchPlanTest {
+
+    @Autowired ThirdPartyService service;
+    @Autowired EntityManagerFactory emf;
+
+    StatementCounter statements;
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounter(emf);
+        emf.getCache().evictAll(); // sin cache L2: se mide el fetch plan contra la DB
+    }
+
+    @Test
+    void detailLoadsAggregateInThreeStatements() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        var addresses = IntStream.range(0, 5)
+                .mapToObj(i -> new AddressDto(AddressType.DELIVERY, "Calle " + i, null, null, null, null, null, i == 0))
+                .toList();
+        var taxIds = IntStream.range(0, 4)
+                .mapToObj(i -> new TaxIdDto(TaxIdType.OTHER, tag + "-" + i, i == 0))
+                .toList();
+        UUID id = service.create(Fixtures.thirdParty("Agregado " + tag, null, taxIds, addresses)).getId();
+        emf.getCache().evictAll();
+
+        long n = statements.count(() -> {
+            var tp = service.get(id);
+            assertThat(tp.getAddresses()).hasSize(5);
+            assertThat(tp.getTaxIds()).hasSize(4);
+        });
+
+        // ficha + addresses + taxIds
+        assertThat(n).isEqualTo(3);
+    }
+
+    @Test
+    void warmDetailComesFromSecondLevelCache() {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        var addresses = List.of(new AddressDto(AddressType.DELIVERY, "Calle 1", null, null, null, null, null, true));
+        var taxIds = List.of(new TaxIdDto(TaxIdType.OTHER, tag, true));
+        UUID id = service.create(Fixtures.thirdParty("Cacheada " + tag, null, taxIds, addresses)).getId();
+        service.get(id); // calienta ficha + colecciones + hijos
+
+        long n = statements.count(() -> {
+            var tp = service.get(id);
+            assertThat(tp.getAddresses()).hasSize(1);
+            assertThat(tp.getTaxIds()).hasSize(1);
+        });
+
+        assertThat(n).isZero();
+    }
+
+    @Test
+    void pageIsASingleProjectionQuery() {
+        String tag = "Pagina " + UUID.randomUUID().toString().substring(0, 8);
+        IntStream.range(0, 12).forEach(i -> service.create(Fixtures.thirdParty(tag + " " + i, null)));
+
+        long first = statements.count(() -> {
+            var page = service.page(null, tag, 5, null);
+            assertThat(page.items()).hasSize(5);
+            assertThat(page.nextCursor()).isNotNull();
+        });
+        assertThat(first).isEqualTo(1);
+
+        var cursor = service.page(null, tag, 5, null).nextCursor();
+        long next = statements.count(() -> assertThat(service.page(null, tag, 5, cursor).items()).hasSize(5));
+        assertThat(next).isEqualTo(1);
+    }
+}
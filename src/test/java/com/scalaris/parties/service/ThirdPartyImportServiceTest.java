@@ -0,0 +1,198 @@
+package com.scalaris.parties.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalaris.config.ThirdPartyImportProperties;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse.RowResult;
+import com.scalaris.parties.web.dto.ThirdPartyImportResponse.Status;
+import com.scalaris.support.PostgresTest;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresTest
+class ThirdPartyImportServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThirdPartyImportServiceTest.class);
+    private static final String HEADER = "kind,personType,displayName,email,documentType,documentNumber";
+
+    @Autowired ThirdPartyService parties;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired Validator validator;
+    @Autowired ObjectMapper mapper;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void conflictingChunkIsReplayedRowByRow() throws IOException {
+        String tag = tag();
+        // un solo lote: el email repetido (otra capitalización) y el documento repetido lo hacen fallar entero
+        var res = importer(10, 1_000).importCsv(csv(
+                row(tag, 1, "uno-" + tag + "@demo.com", "A" + tag),
+                row(tag, 2, "UNO-" + tag + "@demo.com", "B" + tag),
+                "XX,PERSON,Inválida " + tag + ",,,",
+                row(tag, 4, "cuatro-" + tag + "@demo.com", "C" + tag),
+                row(tag, 5, "cinco-" + tag + "@demo.com", "C" + tag),
+                row(tag, 6, "seis-" + tag + "@demo.com", "D" + tag)));
+
+        assertThat(res.total()).isEqualTo(6);
+        assertThat(res.created()).isEqualTo(3);
+        assertThat(res.failed()).isEqualTo(3);
+        assertThat(res.rows()).extracting(RowResult::row).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(res.rows()).extracting(RowResult::status).containsExactly(
+                Status.CREATED, Status.FAILED, Status.FAILED, Status.CREATED, Status.FAILED, Status.CREATED);
+        assertThat(res.rows().get(1).message()).isEqualTo("Email ya registrado en clientes/proveedores");
+        assertThat(res.rows().get(2).message()).isEqualTo("Valor inválido para kind: XX");
+        assertThat(res.rows().get(4).message()).isEqualTo("Documento ya registrado en clientes/proveedores");
+
+        // cada fila creada quedó una sola vez y con el id informado (el lote revertido no dejó nada)
+        for (var r : res.rows()) {
+            if (r.status() == Status.CREATED) {
+                assertThat(r.id()).isNotNull();
+                assertThat(displayNameOf(r.id())).isEqualTo("Fila " + r.row() + " " + tag);
+            } else {
+                assertThat(r.id()).isNull();
+            }
+        }
+        assertThat(countTagged(tag)).isEqualTo(3);
+    }
+
+    @Test
+    void conflictAgainstExistingRowOnlyFailsThatRow() throws IOException {
+        String tag = tag();
+        importer(10, 1_000).importCsv(csv(row(tag, 1, "ya-" + tag + "@demo.com", "A" + tag)));
+
+        // lotes de 2: solo el segundo choca y se reintenta; el primero y el tercero entran por batch
+        var res = importer(2, 1_000).importCsv(csv(
+                row(tag, 1, "x1-" + tag + "@demo.com", "X1" + tag),
+                row(tag, 2, "x2-" + tag + "@demo.com", "X2" + tag),
+                row(tag, 3, "ya-" + tag + "@demo.com", "X3" + tag),
+                row(tag, 4, "x4-" + tag + "@demo.com", "X4" + tag),
+                row(tag, 5, "x5-" + tag + "@demo.com", "X5" + tag)));
+
+        assertThat(res.rows()).extracting(RowResult::status).containsExactly(
+                Status.CREATED, Status.CREATED, Status.FAILED, Status.CREATED, Status.CREATED);
+        assertThat(res.rows().get(2).message()).isEqualTo("Email ya registrado en clientes/proveedores");
+        assertThat(countTagged(tag)).isEqualTo(1 + 4);
+    }
+
+    @Test
+    void rowsBeyondMaxAreCutOffWithOneFailure() throws IOException {
+        String tag = tag();
+        var res = importer(2, 3).importCsv(csv(
+                row(tag, 1, null, null),
+                row(tag, 2, null, null),
+                row(tag, 3, null, null),
+                row(tag, 4, null, null),
+                row(tag, 5, null, null)));
+
+        assertThat(res.total()).isEqualTo(4);
+        assertThat(res.created()).isEqualTo(3);
+        assertThat(res.rows()).extracting(RowResult::row).containsExactly(1, 2, 3, 4);
+        assertThat(res.rows().get(3)).satisfies(r -> {
+            assertThat(r.status()).isEqualTo(Status.FAILED);
+            assertThat(r.message()).isEqualTo("Se alcanzó el máximo de 3 filas por importación; el resto no se procesó");
+        });
+        assertThat(countTagged(tag)).isEqualTo(3);
+    }
+
+    @Test
+    void ndjsonReportsParseErrorsByLineNumber() throws IOException {
+        String tag = tag();
+        String ndjson = String.join("\n",
+                json(tag, 1),
+                "{\"kind\": \"CUSTOMER\", ",
+                "",
+                json(tag, 4),
+                "null",
+                "{\"kind\":\"CUSTOMER\",\"personType\":\"PERSON\"}",
+                json(tag, 7));
+
+        var res = importer(10, 1_000).importNdjson(in(ndjson));
+
+        // la línea en blanco no es una fila pero sí cuenta para numerar las siguientes
+        assertThat(res.rows()).extracting(RowResult::row).containsExactly(1, 2, 4, 5, 6, 7);
+        assertThat(res.rows()).extracting(RowResult::status).containsExactly(
+                Status.CREATED, Status.FAILED, Status.CREATED, Status.FAILED, Status.FAILED, Status.CREATED);
+        assertThat(res.rows().get(1).message()).isEqualTo("JSON inválido o malformado");
+        assertThat(res.rows().get(3).message()).isEqualTo("Fila vacía");
+        assertThat(res.rows().get(4).message()).contains("displayName");
+        assertThat(countTagged(tag)).isEqualTo(3);
+    }
+
+    @Test
+    void fiftyThousandRowsImportWellUnderAMinute() throws IOException {
+        String tag = tag();
+        int rows = 50_000;
+        var sb = new StringBuilder(rows * 80).append(HEADER).append('\n');
+        for (int i = 1; i <= rows; i++) {
+            sb.append(row(tag, i, "masiva-" + i + "-" + tag + "@demo.com", "M" + i + "-" + tag)).append('\n');
+        }
+
+        long start = System.nanoTime();
+        ThirdPartyImportResponse res = importer(500, 100_000).importCsv(in(sb.toString()));
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        log.info("Importación CSV: {} filas en {} ms ({} filas/s)", rows, elapsed.toMillis(),
+                rows * 1_000L / Math.max(1, elapsed.toMillis()));
+        assertThat(res.created()).isEqualTo(rows);
+        assertThat(res.failed()).isZero();
+        assertThat(countTagged(tag)).isEqualTo(rows);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(60));
+    }
+
+    // chunk/maxRows propios para forzar lotes chicos y el corte sin depender de application.properties
+    private ThirdPartyImportService importer(int chunkSize, int maxRows) {
+        var props = new ThirdPartyImportProperties();
+        props.setChunkSize(chunkSize);
+        props.setMaxRows(maxRows);
+        return new ThirdPartyImportService(parties, em, txManager, validator, mapper, props);
+    }
+
+    private static String row(String tag, int n, String email, String document) {
+        return "CUSTOMER,PERSON,Fila " + n + " " + tag + ","
+                + (email == null ? "" : email) + ","
+                + (document == null ? "" : "DNI") + ","
+                + (document == null ? "" : document);
+    }
+
+    private static String json(String tag, int n) {
+        return "{\"kind\":\"CUSTOMER\",\"personType\":\"PERSON\",\"displayName\":\"Fila " + n + " " + tag + "\"}";
+    }
+
+    private static InputStream csv(String... rows) {
+        return in(HEADER + "\n" + String.join("\n", rows) + "\n");
+    }
+
+    private static InputStream in(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String displayNameOf(UUID id) {
+        return jdbc.queryForObject("select display_name from third_party where id = ?", String.class, id);
+    }
+
+    private int countTagged(String tag) {
+        Integer n = jdbc.queryForObject("select count(*) from third_party where display_name like ?",
+                Integer.class, "% " + tag);
+        return n == null ? 0 : n;
+    }
+
+    private static String tag() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.scalaris.parties.web;
+
+import com.scalaris.shared.errors.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ThirdPartyETagsTest {
+
+    private final UUID id = UUID.fromString("0190d0f4-7c2a-7b3e-9a51-3f6c2d8e4b10");
+
+    @Test
+    void entityETagIsStrongAndRoundTrips() {
+        String etag = ThirdPartyETags.of(id, 7);
+
+        assertThat(etag).isEqualTo("\"" + id + "-7\"");
+        assertThat(ThirdPartyETags.expectedVersion(id, etag)).isEqualTo(7L);
+        assertThat(ThirdPartyETags.expectedVersion(id, "  " + etag + " ")).isEqualTo(7L);
+    }
+
+    @Test
+    void missingOrWildcardIfMatchIsNoPrecondition() {
+        assertThat(ThirdPartyETags.expectedVersion(id, null)).isNull();
+        assertThat(ThirdPartyETags.expectedVersion(id, " ")).isNull();
+        assertThat(ThirdPartyETags.expectedVersion(id, "*")).isNull();
+    }
+
+    @Test
+    void weakETagIsRejectedWith412() {
+        assertThatThrownBy(() -> ThirdPartyETags.expectedVersion(id, "W/" + ThirdPartyETags.of(id, 7)))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @Test
+    void foreignOrMalformedETagIsInvalidRequest() {
+        UUID other = UUID.fromString("0190d0f4-7c2a-7b3e-9a51-3f6c2d8e4b11");
+
+        assertThatThrownBy(() -> ThirdPartyETags.expectedVersion(id, ThirdPartyETags.of(other, 7)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThirdPartyETags.expectedVersion(id, "\"" + id + "-x\""))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ThirdPartyETags.expectedVersion(id, id + "-7"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void collectionETagWrapsTheCollectionVersion() {
+        assertThat(ThirdPartyETags.collection("0")).isEqualTo("\"c-0\"");
+        assertThat(ThirdPartyETags.collection("2f.1a-0123456789abcdef")).isEqualTo("\"c-2f.1a-0123456789abcdef\"");
+        assertThat(ThirdPartyETags.collection("2f.1a")).isNotEqualTo(ThirdPartyETags.collection("2f.1b"));
+    }
+}
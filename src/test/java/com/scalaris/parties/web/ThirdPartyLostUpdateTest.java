@@ -0,0 +1,125 @@
+package com.scalaris.parties.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.auth.repo.UserRepository;
+import com.scalaris.auth.service.TokenService;
+import com.scalaris.parties.domain.PersonType;
+import com.scalaris.parties.domain.ThirdPartyKind;
+import com.scalaris.parties.service.ThirdPartyService;
+import com.scalaris.parties.web.dto.ThirdPartyUpdateRequest;
+import com.scalaris.support.Fixtures;
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Lost update con If-Match: dos clientes editan desde el mismo GET; el segundo PUT recibe 409 y
+ * su versión vieja nunca pisa la del primero.
+ */
+@PostgresTest
+class ThirdPartyLostUpdateTest {
+
+    private static final String BASE = "/api/v1/third-parties";
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper json;
+    @Autowired ThirdPartyService service;
+    @Autowired TokenService tokens;
+    @Autowired UserRepository users;
+    @Autowired JdbcTemplate jdbc;
+
+    String bearer;
+
+    @BeforeEach
+    void setUp() {
+        bearer = "Bearer " + tokens.generateAccessToken(users.save(Fixtures.user(UserRole.ADMIN)));
+    }
+
+    @Test
+    void secondWriterWithSameETagGets409() throws Exception {
+        UUID id = service.create(Fixtures.thirdParty("Original " + tag(), null)).getId();
+        long before = version(id);
+
+        // los dos clientes leen la misma versión
+        String etag = mvc.perform(get(BASE + "/{id}", id).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo(ThirdPartyETags.of(id, before));
+        String listEtag = listETag();
+
+        String newEtag = mvc.perform(update(id, etag, "Cliente A"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isEqualTo(ThirdPartyETags.of(id, before + 1));
+
+        mvc.perform(update(id, etag, "Cliente B"))
+                .andExpect(status().isConflict());
+
+        assertThat(version(id)).isEqualTo(before + 1);
+        assertThat(displayName(id)).isEqualTo("Cliente A");
+        assertThat(listETag()).isNotEqualTo(listEtag); // el listado también ve la escritura confirmada
+
+        // con el ETag nuevo el segundo cliente sí puede escribir, y la versión sube exactamente uno
+        mvc.perform(update(id, newEtag, "Cliente B"))
+                .andExpect(status().isOk());
+        assertThat(version(id)).isEqualTo(before + 2);
+        assertThat(displayName(id)).isEqualTo("Cliente B");
+    }
+
+    @Test
+    void weakIfMatchIsRejectedWithoutWriting() throws Exception {
+        UUID id = service.create(Fixtures.thirdParty("Original " + tag(), null)).getId();
+        long before = version(id);
+
+        mvc.perform(update(id, "W/" + ThirdPartyETags.of(id, before), "Cliente A"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(version(id)).isEqualTo(before);
+    }
+
+    private RequestBuilder update(UUID id, String ifMatch, String displayName)
+            throws Exception {
+        var req = new ThirdPartyUpdateRequest(
+                ThirdPartyKind.CUSTOMER, PersonType.PERSON, displayName, null, null, null,
+                null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null,
+                null, null);
+        return put(BASE + "/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsString(req));
+    }
+
+    private String listETag() throws Exception {
+        return mvc.perform(get(BASE).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private long version(UUID id) {
+        return jdbc.queryForObject("select version from third_party where id = ?", Long.class, id);
+    }
+
+    private String displayName(UUID id) {
+        return jdbc.queryForObject("select display_name from third_party where id = ?", String.class, id);
+    }
+
+    private static String tag() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,64 @@
+package com.scalaris.shared.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void hasVersion7AndRfcVariant() {
+        UUID id = UuidV7Generator.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void embedsCurrentEpochMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        // la secuencia puede haber empujado unos ms hacia adelante si otro test generó mucho
+        assertThat(millis).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    void isStrictlyIncreasingWithinTheSameMillisecond() {
+        UUID prev = UuidV7Generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.next();
+            // mismo orden que la PK en Postgres (bytes sin signo, big-endian)
+            assertThat(next.toString()).isGreaterThan(prev.toString());
+            prev = next;
+        }
+    }
+
+    @Test
+    void isUniqueAcrossThreads() throws Exception {
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        int threads = 8, perThread = 20_000;
+
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) seen.add(UuidV7Generator.next());
+                }));
+            }
+            for (var task : tasks) task.get();
+        }
+
+        assertThat(seen).hasSize(threads * perThread);
+    }
+}
@@ -0,0 +1,70 @@
+package com.scalaris.shared.ids;
+
+import com.scalaris.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mismas N filas con claves v4 (aleatorias) y v7 (ordenadas por tiempo): las v7 siempre caen en la
+ * última hoja del índice de la PK, las v4 parten páginas por todo el árbol y lo dejan más grande.
+ */
+@PostgresTest
+class UuidV7InsertTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidV7InsertTest.class);
+    private static final int ROWS = 200_000;
+    private static final int BATCH = 1_000;
+
+    @Autowired JdbcTemplate jdbc;
+
+    @AfterEach
+    void dropTables() {
+        jdbc.execute("drop table if exists uuid_insert_v4, uuid_insert_v7");
+    }
+
+    @Test
+    void v7KeysKeepThePrimaryKeyIndexSmaller() {
+        var v4 = insert("uuid_insert_v4", UUID::randomUUID);
+        var v7 = insert("uuid_insert_v7", UuidV7Generator::next);
+
+        log.info("PK uuid, {} filas: v4 {} filas/s, índice {} KiB | v7 {} filas/s, índice {} KiB",
+                ROWS, v4.rowsPerSecond(), v4.pkeyBytes() / 1024, v7.rowsPerSecond(), v7.pkeyBytes() / 1024);
+
+        assertThat(v7.pkeyBytes()).isLessThan(v4.pkeyBytes());
+    }
+
+    private Result insert(String table, Supplier<UUID> ids) {
+        jdbc.execute("create table " + table + " (id uuid primary key, payload text not null)");
+
+        long start = System.nanoTime();
+        var batch = new ArrayList<Object[]>(BATCH);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{ids.get(), "fila " + i});
+            if (batch.size() == BATCH) flush(table, batch);
+        }
+        if (!batch.isEmpty()) flush(table, batch);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Long size = jdbc.queryForObject("select pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+        return new Result(ROWS * 1_000L / Math.max(1, elapsed.toMillis()), size == null ? 0 : size);
+    }
+
+    private void flush(String table, List<Object[]> batch) {
+        jdbc.batchUpdate("insert into " + table + " (id, payload) values (?, ?)", batch);
+        batch.clear();
+    }
+
+    private record Result(long rowsPerSecond, long pkeyBytes) {}
+}
@@ -0,0 +1,21 @@
+package com.scalaris.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Plan de ejecución de una consulta. Con tablas chicas el planner prefiere seq scan aunque el índice
+ * sirva, así que se apaga (solo en la transacción del EXPLAIN): si igual hay Seq Scan, el índice no aplica.
+ */
+public final class Explain {
+
+    private Explain() {}
+
+    public static String plan(JdbcTemplate jdbc, PlatformTransactionManager txManager, String sql, Object... args) {
+        return new TransactionTemplate(txManager).execute(status -> {
+            jdbc.execute("set local enable_seqscan = off");
+            return String.join("\n", jdbc.queryForList("explain " + sql, String.class, args));
+        });
+    }
+}
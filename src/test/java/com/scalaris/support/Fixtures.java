@@ -0,0 +1,37 @@
+package com.scalaris.support;
+
+import com.scalaris.auth.domain.User;
+import com.scalaris.auth.domain.UserRole;
+import com.scalaris.parties.domain.PersonType;
+import com.scalaris.parties.domain.ThirdPartyKind;
+import com.scalaris.parties.web.dto.ThirdPartyCreateRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Requests mínimos válidos para armar datos de prueba. */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    /** Usuario con email único; el hash no es verificable (los tests no pasan por el login). */
+    public static User user(UserRole role) {
+        String email = "test-" + UUID.randomUUID() + "@scalaris.test";
+        return new User("Usuario de prueba", email, "{noop}x", role, null, null, true);
+    }
+
+    public static ThirdPartyCreateRequest thirdParty(String displayName, String email) {
+        return thirdParty(displayName, email, null, null);
+    }
+
+    public static ThirdPartyCreateRequest thirdParty(String displayName,
+                                                     String email,
+                                                     List<ThirdPartyCreateRequest.TaxIdDto> taxIds,
+                                                     List<ThirdPartyCreateRequest.AddressDto> addresses) {
+        return new ThirdPartyCreateRequest(
+                ThirdPartyKind.CUSTOMER, PersonType.PERSON, displayName, null, email, null,
+                null, null, null, null, null, null, null,
+                null, null, null, null, null, null, null,
+                taxIds, addresses);
+    }
+}
@@ -0,0 +1,24 @@
+package com.scalaris.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.annotation.*;
+
+/**
+ * Test de integración contra Postgres (Testcontainers) con el contexto completo y MockMvc.
+ * Sin Docker disponible los tests se saltean en vez de fallar.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(PostgresTestConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+public @interface PostgresTest {
+}
@@ -0,0 +1,21 @@
+package com.scalaris.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/** Cuenta las sentencias JDBC que prepara Hibernate durante un bloque (detecta N+1). */
+public final class StatementCounter {
+
+    private final Statistics stats;
+
+    public StatementCounter(EntityManagerFactory emf) {
+        this.stats = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public long count(Runnable work) {
+        stats.clear();
+        work.run();
+        return stats.getPrepareStatementCount();
+    }
+}